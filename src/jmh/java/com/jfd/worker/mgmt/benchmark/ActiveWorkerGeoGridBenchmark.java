@@ -0,0 +1,93 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.service.ActiveWorkerGeoGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest on-duty workers from the {@link ActiveWorkerGeoGrid}: most workers are clustered around
+ * a few cities and the rest spread over the globe, and queries are mostly near a city with random
+ * k, with and without a radius. {@code move} is the grid update done for every location change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActiveWorkerGeoGridBenchmark {
+
+    private static final double[][] CITIES = {
+            {19.07, 72.88}, {28.61, 77.21}, {12.97, 77.59}, {13.08, 80.27}, {22.57, 88.36}, {17.38, 78.49}
+    };
+
+    @Param({"200000"})
+    private int workers;
+
+    @Param({"0.1"})
+    private double cellSizeDegrees;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private ActiveWorkerGeoGrid grid;
+
+    @Setup
+    public void setUp() {
+        grid = new ActiveWorkerGeoGrid(true, cellSizeDegrees, Integer.MAX_VALUE);
+        for (int id = 1; id <= workers; id++) {
+            grid.update(worker(id, id % 10 == 0));
+        }
+        grid.markReady();
+    }
+
+    @Benchmark
+    public List<NearbyWorker> nearest() {
+        boolean anywhere = random.nextInt(5) == 0;
+        double[] city = CITIES[random.nextInt(CITIES.length)];
+        double latitude = anywhere ? random.nextDouble() * 120 - 60 : city[0] + gaussian() * 0.3;
+        double longitude = anywhere ? random.nextDouble() * 360 - 180 : city[1] + gaussian() * 0.3;
+        Double radiusKm = random.nextBoolean() ? null : 5 + random.nextDouble() * 50;
+        return grid.nearest(latitude, longitude, 1 + random.nextInt(50), radiusKm);
+    }
+
+    @Benchmark
+    public int move() {
+        grid.update(worker(1 + random.nextInt(workers), false));
+        return grid.size();
+    }
+
+    private WorkerInformation worker(int id, boolean anywhere) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(id);
+        if (anywhere) {
+            worker.setLatitude(random.nextDouble() * 180 - 90);
+            worker.setLongitude(random.nextDouble() * 360 - 180);
+        } else {
+            double[] city = CITIES[id % CITIES.length];
+            worker.setLatitude(city[0] + gaussian() * 0.2);
+            worker.setLongitude(city[1] + gaussian() * 0.2);
+        }
+        worker.setStatus(WorkerStatus.ON_DUTY);
+        return worker;
+    }
+
+    private double gaussian() {
+        // Sum of uniforms; close enough to normal for placing workers around a city
+        return random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5;
+    }
+}
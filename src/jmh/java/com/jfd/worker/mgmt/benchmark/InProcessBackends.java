@@ -0,0 +1,441 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
+import com.jfd.worker.mgmt.metrics.StageMetrics;
+import com.jfd.worker.mgmt.metrics.TracePropagation;
+import com.jfd.worker.mgmt.model.config.DatabaseSequence;
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.outbox.OutboxLease;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.repository.MongoReadRouting;
+import com.jfd.worker.mgmt.repository.WorkerInformationRepository;
+import com.jfd.worker.mgmt.service.ActiveWorkerGeoGrid;
+import com.jfd.worker.mgmt.service.IdempotencyService;
+import com.jfd.worker.mgmt.service.OutboxRelay;
+import com.jfd.worker.mgmt.service.SequenceGeneratorService;
+import com.jfd.worker.mgmt.service.WorkerCache;
+import com.jfd.worker.mgmt.service.WorkerService;
+import com.jfd.worker.mgmt.service.WorkerStatistics;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-process stand-ins for MongoDB and Kafka used by the benchmarks.
+ * <p>
+ * MongoDB is replaced by stub-only mocks (no invocation recording, so they do not skew the
+ * allocation numbers) backed by an in-memory sequence counter and outbox queue; Kafka by a
+ * {@link MockProducer} that acknowledges every send immediately. An optional round-trip delay
+ * simulates the network latency of a real MongoDB call.
+ * <p>
+ * Seeded workers are kept in memory and support the subset of queries and updates the service
+ * issues for status changes: equality and {@code $in} on id, status and ekycId, {@code $gt} on id,
+ * sorting by id, {@code $set} of the status and {@code $inc} of the version.
+ */
+final class InProcessBackends implements AutoCloseable {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<OutboxEvent> outbox = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, WorkerInformation> workers = new ConcurrentHashMap<>();
+    private final AtomicLong importedDocuments = new AtomicLong();
+    private final long mongoRoundTripNanos;
+    private volatile int snapshotDocuments;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoOperations mongoOperations = mock(MongoOperations.class, withSettings().stubOnly());
+    private final WorkerInformationRepository repository = mock(WorkerInformationRepository.class, withSettings().stubOnly());
+    private final MockProducer<String, byte[]> eventProducer = mockProducer(new ByteArraySerializer());
+    private final MockProducer<String, String> stringProducer = mockProducer(new StringSerializer());
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    InProcessBackends(Duration mongoRoundTrip) {
+        this.mongoRoundTripNanos = mongoRoundTrip.toNanos();
+
+        // database_sequences: an atomic $inc that returns the new value
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> {
+                    roundTrip();
+                    UpdateDefinition update = invocation.getArgument(1);
+                    Number inc = (Number) update.getUpdateObject().get("$inc", Document.class).get("seq");
+                    DatabaseSequence counter = new DatabaseSequence();
+                    counter.setSeq(sequence.addAndGet(inc.longValue()));
+                    return counter;
+                });
+
+        // workers: writes are acknowledged but not kept, so long runs do not grow the heap
+        when(repository.save(any(WorkerInformation.class))).thenAnswer(invocation -> {
+            roundTrip();
+            return invocation.getArgument(0);
+        });
+
+        // worker_outbox: insert, read in order, remove
+        when(mongoOperations.insert(any(OutboxEvent.class))).thenAnswer(invocation -> {
+            OutboxEvent event = invocation.getArgument(0);
+            if (event.getId() == null) {
+                event.setId(ObjectId.get().toHexString());
+            }
+            outbox.add(event);
+            return event;
+        });
+        when(mongoOperations.insert(anyCollection(), eq(OutboxEvent.class))).thenAnswer(invocation -> {
+            roundTrip();
+            Collection<OutboxEvent> events = invocation.getArgument(0);
+            for (OutboxEvent event : events) {
+                if (event.getId() == null) {
+                    event.setId(ObjectId.get().toHexString());
+                }
+                outbox.add(event);
+            }
+            return events;
+        });
+        when(mongoOperations.find(any(Query.class), eq(OutboxEvent.class))).thenAnswer(invocation -> {
+            roundTrip();
+            int limit = ((Query) invocation.getArgument(0)).getLimit();
+            List<OutboxEvent> events = new ArrayList<>();
+            OutboxEvent event;
+            while ((limit == 0 || events.size() < limit) && (event = outbox.poll()) != null) {
+                events.add(event);
+            }
+            return events;
+        });
+        when(mongoOperations.upsert(any(Query.class), any(UpdateDefinition.class), eq(OutboxLease.class)))
+                .thenReturn(null);
+
+        // workers kept by seedWorkers
+        when(mongoOperations.find(any(Query.class), eq(WorkerInformation.class))).thenAnswer(invocation -> {
+            roundTrip();
+            Query query = invocation.getArgument(0);
+            return matching(query).stream()
+                    .limit(query.getLimit() > 0 ? query.getLimit() : Long.MAX_VALUE)
+                    .map(InProcessBackends::copy)
+                    .toList();
+        });
+        when(mongoOperations.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(WorkerInformation.class)))
+                .thenAnswer(invocation -> {
+                    roundTrip();
+                    List<WorkerInformation> matched = matching(invocation.getArgument(0));
+                    matched.forEach(worker -> apply(invocation.getArgument(1), worker));
+                    return UpdateResult.acknowledged(matched.size(), (long) matched.size(), null);
+                });
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class)))
+                .thenAnswer(invocation -> {
+                    roundTrip();
+                    List<WorkerInformation> matched = matching(invocation.getArgument(0));
+                    if (matched.isEmpty()) {
+                        return null;
+                    }
+                    WorkerInformation worker = matched.get(0);
+                    WorkerInformation previous = copy(worker);
+                    apply(invocation.getArgument(1), worker);
+                    return ((FindAndModifyOptions) invocation.getArgument(2)).isReturnNew() ? copy(worker) : previous;
+                });
+
+        // workers as raw documents for the snapshot export and import: generated on the fly, inserts only counted
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("workers"))).thenAnswer(invocation -> {
+            Document idFilter = ((Query) invocation.getArgument(0)).getQueryObject().get("_id", Document.class);
+            int after = idFilter == null ? 0 : idFilter.getInteger("$gt");
+            return IntStream.rangeClosed(after + 1, snapshotDocuments).mapToObj(InProcessBackends::workerDocument);
+        });
+        BulkOperations bulkOperations = mock(BulkOperations.class, withSettings().stubOnly());
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            roundTrip();
+            importedDocuments.addAndGet(((List<?>) invocation.getArgument(0)).size());
+            return bulkOperations;
+        });
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, "workers")).thenReturn(bulkOperations);
+    }
+
+    /**
+     * Wires a WorkerService to the stand-ins, with the geo grid disabled and the worker cache and statistics enabled.
+     */
+    WorkerService workerService(WorkerEventFormat eventFormat, int sequenceBlockSize) {
+        SequenceGeneratorService sequenceGeneratorService = new SequenceGeneratorService(
+                mongoOperations, Runnable::run, sequenceBlockSize, 0.25, limiter("mongo"));
+        WorkerCache workerCache = new WorkerCache(true, 10_000, Duration.ofMinutes(1),
+                kafkaTemplate(), meterRegistry, limiter("kafka"));
+        MongoReadRouting readRouting = new MongoReadRouting(true, Duration.ofSeconds(100),
+                Set.of("list", "search", "stream"), mongoOperations, mongoOperations, meterRegistry);
+        WorkerService workerService = new WorkerService(repository, mongoOperations, readRouting,
+                validatorFactory.getValidator(), sequenceGeneratorService, activeWorkerGeoGrid(),
+                new WorkerStatistics(true, 0.5, mongoOperations, limiter("mongo")), workerCache,
+                transactionTemplate(), new WorkerEventSerializer(eventFormat), limiter("mongo"),
+                new StageMetrics(meterRegistry), new TracePropagation((Tracer) null, (Propagator) null));
+        ReflectionTestUtils.setField(workerService, "kafkaTopic", "worker-registration");
+        ReflectionTestUtils.setField(workerService, "updateTopic", "worker-updates");
+        return workerService;
+    }
+
+    /**
+     * @return A disabled grid; it would otherwise hold every registered worker for the whole run.
+     */
+    ActiveWorkerGeoGrid activeWorkerGeoGrid() {
+        return new ActiveWorkerGeoGrid(false, 0.1, 200);
+    }
+
+    /**
+     * Wires an IdempotencyService to the stand-ins; records are written but never read back, so
+     * only keys completed on this instance are replayed (from the local cache).
+     */
+    IdempotencyService idempotencyService(ObjectMapper objectMapper) {
+        return new IdempotencyService(10_000, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(10),
+                mongoOperations, objectMapper, meterRegistry, limiter("mongo"));
+    }
+
+    OutboxRelay outboxRelay() {
+        return new OutboxRelay(mongoOperations, eventKafkaTemplate(), true, 500,
+                Duration.ofSeconds(10), Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        validatorFactory.close();
+    }
+
+    MongoOperations mongoOperations() {
+        return mongoOperations;
+    }
+
+    WorkerInformationRepository repository() {
+        return repository;
+    }
+
+    SimpleMeterRegistry meterRegistry() {
+        return meterRegistry;
+    }
+
+    ConcurrencyLimiter limiter(String resource) {
+        return new ConcurrencyLimiter(resource, 1_000, Duration.ofSeconds(10), meterRegistry);
+    }
+
+    /**
+     * @return A transaction template whose transactions only run the callback.
+     */
+    TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+
+    KafkaTemplate<String, byte[]> eventKafkaTemplate() {
+        ProducerFactory<String, byte[]> producerFactory = () -> eventProducer;
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    KafkaTemplate<String, String> kafkaTemplate() {
+        ProducerFactory<String, String> producerFactory = () -> stringProducer;
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * @return The number of records sent to Kafka since the last call; clears the producer history.
+     */
+    int drainSentEvents() {
+        int sent = eventProducer.history().size() + stringProducer.history().size();
+        eventProducer.clear();
+        stringProducer.clear();
+        return sent;
+    }
+
+    /**
+     * Stores workers with IDs 1 to {@code count} in the given status.
+     */
+    void seedWorkers(int count, WorkerStatus status) {
+        for (int id = 1; id <= count; id++) {
+            WorkerInformation worker = validWorker();
+            worker.setId(id);
+            worker.setStatus(status);
+            worker.setVersion(0L);
+            workers.put(id, worker);
+        }
+    }
+
+    /**
+     * Makes the workers collection, as read by a snapshot export, hold {@code count} generated documents.
+     */
+    void seedWorkerDocuments(int count) {
+        snapshotDocuments = count;
+    }
+
+    /**
+     * @return The number of documents bulk inserted into the workers collection since the last call.
+     */
+    long drainImportedDocuments() {
+        return importedDocuments.getAndSet(0);
+    }
+
+    long countWorkers(WorkerStatus status) {
+        return workers.values().stream().filter(worker -> worker.getStatus() == status).count();
+    }
+
+    int pendingOutboxEvents() {
+        return outbox.size();
+    }
+
+    /**
+     * @return A worker that passes validation, without an ID.
+     */
+    static WorkerInformation validWorker() {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setName("Asha Kumari");
+        worker.setAge(29);
+        worker.setPhoneNumber("+91 98765 43210");
+        worker.setEkycId(EkycId.AADHAR);
+        worker.setEkycData("1234-5678-9012");
+        worker.setAddress("12, MG Road, Bengaluru 560001");
+        worker.setLatitude(12.9716);
+        worker.setLongitude(77.5946);
+        worker.setStatus(WorkerStatus.ON_DUTY);
+        return worker;
+    }
+
+    /**
+     * @return A worker document as stored in MongoDB, with the fields a registration writes.
+     */
+    static Document workerDocument(int id) {
+        return new Document("_id", id)
+                .append("name", "Asha Kumari")
+                .append("age", 29)
+                .append("phoneNumber", "+91 98765 " + String.format("%05d", id % 100_000))
+                .append("phoneNumberKey", "9198765" + String.format("%05d", id % 100_000))
+                .append("ekycId", "AADHAR")
+                .append("ekycData", "1234-5678-9012")
+                .append("address", "12, MG Road, Bengaluru 560001")
+                .append("latitude", 12.9716 + (id % 1000) * 1e-4)
+                .append("longitude", 77.5946 + (id % 997) * 1e-4)
+                .append("location", new Document("type", "Point").append("coordinates",
+                        List.of(77.5946 + (id % 997) * 1e-4, 12.9716 + (id % 1000) * 1e-4)))
+                .append("status", "ON_DUTY")
+                .append("version", 0L)
+                .append("_class", "com.jfd.worker.mgmt.model.registration.WorkerInformation");
+    }
+
+    private List<WorkerInformation> matching(Query query) {
+        Document filter = query.getQueryObject();
+        return workers.values().stream()
+                .filter(worker -> matches(filter.get("id"), worker.getId())
+                        && matches(filter.get("status"), worker.getStatus())
+                        && matches(filter.get("ekycId"), worker.getEkycId()))
+                .sorted(Comparator.comparing(WorkerInformation::getId))
+                .toList();
+    }
+
+    private static boolean matches(Object condition, Object value) {
+        if (condition == null) {
+            return true;
+        }
+        if (!(condition instanceof Document operators)) {
+            return condition.equals(value);
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            boolean matched = switch (operator.getKey()) {
+                case "$in" -> ((Collection<?>) operator.getValue()).contains(value);
+                case "$gt" -> ((Integer) value) > ((Number) operator.getValue()).intValue();
+                default -> throw new UnsupportedOperationException("Stand-in does not support " + operator.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void apply(UpdateDefinition update, WorkerInformation worker) {
+        Document set = update.getUpdateObject().get("$set", Document.class);
+        if (set != null && set.get("status") != null) {
+            worker.setStatus((WorkerStatus) set.get("status"));
+        }
+        Document inc = update.getUpdateObject().get("$inc", Document.class);
+        if (inc != null && inc.get("version") != null) {
+            long current = worker.getVersion() == null ? 0 : worker.getVersion();
+            worker.setVersion(current + ((Number) inc.get("version")).longValue());
+        }
+    }
+
+    private static WorkerInformation copy(WorkerInformation worker) {
+        WorkerInformation copy = validWorker();
+        copy.setId(worker.getId());
+        copy.setStatus(worker.getStatus());
+        copy.setVersion(worker.getVersion());
+        return copy;
+    }
+
+    private void roundTrip() {
+        if (mongoRoundTripNanos > 0) {
+            LockSupport.parkNanos(mongoRoundTripNanos);
+        }
+    }
+
+    private static <V> MockProducer<String, V> mockProducer(Serializer<V> valueSerializer) {
+        // KafkaTemplate closes the producer after every send; keep the mock open across sends
+        return new MockProducer<>(true, new StringSerializer(), valueSerializer) {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+    }
+}
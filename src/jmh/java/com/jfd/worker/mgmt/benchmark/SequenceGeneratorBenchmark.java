@@ -0,0 +1,63 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.service.SequenceGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID allocation by {@link SequenceGeneratorService} from several threads. With a non-zero
+ * round-trip each lease of the sequence document costs that long, so block size 1 shows the
+ * cost of one MongoDB call per ID and larger blocks show what hi/lo leasing saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SequenceGeneratorBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int blockSize;
+
+    @Param({"0", "500"})
+    private long mongoRoundTripMicros;
+
+    private ExecutorService refillExecutor;
+    private SequenceGeneratorService sequenceGeneratorService;
+
+    @Setup
+    public void setUp() {
+        InProcessBackends backends = new InProcessBackends(Duration.ofNanos(mongoRoundTripMicros * 1_000));
+        refillExecutor = Executors.newSingleThreadExecutor();
+        sequenceGeneratorService = new SequenceGeneratorService(backends.mongoOperations(), refillExecutor,
+                blockSize, 0.25, backends.limiter("mongo"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        refillExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int generateSequence() {
+        return sequenceGeneratorService.generateSequence("workers_sequence");
+    }
+}
@@ -0,0 +1,135 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from process start until Spring Boot logs "Started WorkerMgmtApplication", for the plain JVM
+ * jar, the JVM with the class-data sharing archive and the native executable. Each invocation starts
+ * a fresh process and kills it once it has started.
+ * <p>
+ * The two JVM modes run in the Jib base image through {@code docker run}, because the archive is
+ * trained there and only maps on that JVM; both include the same container start, so they compare
+ * directly. The native executable runs on the host, without a container.
+ * <p>
+ * Build the artifacts first: {@code ./mvnw -Pcds package} for the jar and the archive, and
+ * {@code ./mvnw -Pnative native:compile} for the executable. Modes whose artifact is missing fail in
+ * setup. Config Server, Eureka and the Kafka broker are not needed: startup ends before the
+ * application talks to MongoDB or Kafka.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String STARTED = "Started WorkerMgmtApplication";
+    private static final Path TARGET = Path.of("target");
+    private static final String BASE_IMAGE = "azul/zulu-openjdk-alpine:21-jre"; // jib.base.image in the pom
+    private static final List<String> APPLICATION_ARGS = List.of("--server.port=0",
+            "--spring.cloud.config.enabled=false", "--eureka.client.enabled=false",
+            "--spring.kafka.producer.bootstrap-servers=localhost:9092",
+            "--app.kafka.topic.worker.registration=worker-registration");
+
+    @Param({"jvm", "cds", "native"})
+    private String mode;
+
+    private List<String> command;
+    private String container;
+    private int runs;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Run from target/ with relative paths: a CDS archive only maps if the class path matches the training run
+        String jar = applicationJar().getFileName().toString();
+        switch (mode) {
+            case "jvm" -> command = inBaseImage(List.of("java", "-jar", require(jar)));
+            case "cds" -> command = inBaseImage(List.of("java", "-XX:SharedArchiveFile=" + require("cds/application.jsa"),
+                    "-Xshare:on", "-jar", require("cds/" + jar)));
+            case "native" -> command = new ArrayList<>(List.of("./" + require("jfd-worker-mgmt")));
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        command.addAll(APPLICATION_ARGS);
+    }
+
+    @Benchmark
+    public void startup() throws IOException, InterruptedException {
+        List<String> run = new ArrayList<>(command);
+        String name = null;
+        if (container != null) {
+            name = container + "-" + runs++;
+            run.add(run.indexOf("--rm") + 1, "--name=" + name);
+        }
+        Process process = new ProcessBuilder(run).directory(TARGET.toFile()).redirectErrorStream(true).start();
+        Deque<String> lastLines = new ArrayDeque<>();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.contains(STARTED)) {
+                    return;
+                }
+                if (lastLines.size() == 20) {
+                    lastLines.removeFirst();
+                }
+                lastLines.addLast(line);
+            }
+            throw new IllegalStateException(mode + " exited with " + process.waitFor() + " before starting:\n"
+                    + String.join("\n", lastLines));
+        } finally {
+            process.destroyForcibly();
+            process.waitFor();
+            if (name != null) {
+                // Killing the docker client leaves the container running
+                new ProcessBuilder("docker", "rm", "--force", name).redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD).start().waitFor();
+            }
+        }
+    }
+
+    private List<String> inBaseImage(List<String> java) {
+        container = "startup-benchmark-" + ProcessHandle.current().pid();
+        List<String> docker = new ArrayList<>(List.of("docker", "run", "--rm", "--platform=linux/amd64",
+                "--volume=" + TARGET.toAbsolutePath() + ":/app", "--workdir=/app", "--entrypoint=java", BASE_IMAGE));
+        docker.addAll(java.subList(1, java.size()));
+        return docker;
+    }
+
+    private static Path applicationJar() throws IOException {
+        try (Stream<Path> files = Files.list(TARGET)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in target; run ./mvnw package first"));
+        }
+    }
+
+    private static String require(String artifact) {
+        if (!Files.exists(TARGET.resolve(artifact))) {
+            throw new IllegalStateException("target/" + artifact + " not found; see the StartupBenchmark javadoc for how to build it");
+        }
+        return artifact;
+    }
+}
@@ -0,0 +1,52 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the worker registration event, done for every registration before the event is
+ * written to the outbox (this replaced the JSON serialization in the former
+ * {@code publishWorkerRegistrationEvent}). JSON is the previous wire format, BINARY the compact one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkerEventSerializationBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    private WorkerEventFormat format;
+
+    private WorkerEventSerializer serializer;
+    private WorkerInformation worker;
+
+    @Setup
+    public void setUp() {
+        serializer = new WorkerEventSerializer(format);
+        worker = InProcessBackends.validWorker();
+        worker.setId(1_234_567);
+        worker.setTimestamp(LocalDateTime.of(2025, 6, 1, 9, 30, 15, 123_456_789));
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("worker-registration", worker);
+    }
+}
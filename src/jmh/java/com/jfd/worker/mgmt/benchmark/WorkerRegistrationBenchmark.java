@@ -0,0 +1,114 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.controller.WorkerController;
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.service.OutboxRelay;
+import com.jfd.worker.mgmt.service.WorkerLocationService;
+import com.jfd.worker.mgmt.service.WorkerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * {@code PUT /api/worker/registration} end to end: JSON binding and validation in Spring MVC,
+ * {@link WorkerController#registerWorker}, ID allocation, the worker and outbox writes, the
+ * response body, and the outbox relay publishing the event to Kafka. MongoDB and Kafka are the
+ * in-process stand-ins from {@link InProcessBackends}. {@code replayRegistration} repeats one
+ * request with the same {@code Idempotency-Key}, which is answered from the stored response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkerRegistrationBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    private WorkerEventFormat eventFormat;
+
+    @Param({"1", "1000"})
+    private int sequenceBlockSize;
+
+    private InProcessBackends backends;
+    private OutboxRelay outboxRelay;
+    private MockMvc mockMvc;
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        backends = new InProcessBackends(Duration.ZERO);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        WorkerService workerService = backends.workerService(eventFormat, sequenceBlockSize);
+        WorkerLocationService workerLocationService = new WorkerLocationService(backends.mongoOperations(),
+                backends.activeWorkerGeoGrid(), backends.limiter("mongo"));
+        outboxRelay = backends.outboxRelay();
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new WorkerController(workerService, workerLocationService,
+                        backends.idempotencyService(objectMapper), objectMapper))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        requestBody = objectMapper.writeValueAsBytes(InProcessBackends.validWorker());
+        register("replayed-key"); // First use of the key registers the worker; the benchmark only replays
+        outboxRelay.relay();
+        backends.drainSentEvents();
+    }
+
+    @TearDown
+    public void tearDown() {
+        backends.close();
+        if (backends.pendingOutboxEvents() > 0) {
+            // registerWorker relays after every registration, so the outbox must be empty
+            throw new IllegalStateException(backends.pendingOutboxEvents() + " outbox events were left unrelayed");
+        }
+    }
+
+    @Benchmark
+    public int registerWorker() throws Exception {
+        MvcResult result = register(null);
+        outboxRelay.relay();
+        return result.getResponse().getContentAsByteArray().length + backends.drainSentEvents();
+    }
+
+    @Benchmark
+    public int replayRegistration() throws Exception {
+        return register("replayed-key").getResponse().getContentAsByteArray().length;
+    }
+
+    private MvcResult register(String idempotencyKey) throws Exception {
+        MockHttpServletRequestBuilder request = put("/api/worker/registration")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody);
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getResponse().getStatus() != 201) {
+            throw new IllegalStateException("Registration failed: " + result.getResponse().getContentAsString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.model.snapshot.SnapshotResult;
+import com.jfd.worker.mgmt.service.WorkerSnapshotService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full snapshot export and import of {@code documents} generated workers through
+ * {@link WorkerSnapshotService}: cursor to gzip NDJSON on disk, and back through parallel decode and
+ * unordered bulk inserts. The cursor and the inserts are the in-process stand-ins, so the numbers are
+ * the service's encode/compress and decompress/decode throughput. Besides the time per run, JMH
+ * reports the workers and compressed bytes each run moved as the {@code workers} and {@code bytes}
+ * secondary results; workers per second is {@code workers} divided by the run time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m") // Bounded memory: the heap is far smaller than the dataset
+public class WorkerSnapshotBenchmark {
+
+    @Param({"2000000"})
+    private int documents;
+
+    @Param({"1", "6"})
+    private int compressionLevel;
+
+    @Param({"1", "4"})
+    private int importParallelism;
+
+    private InProcessBackends backends;
+    private WorkerSnapshotService snapshotService;
+    private Path exportFile;
+    private Path importFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        backends = new InProcessBackends(Duration.ZERO);
+        backends.seedWorkerDocuments(documents);
+        snapshotService = new WorkerSnapshotService(backends.mongoOperations(), backends.limiter("mongo"),
+                100_000, 1000, compressionLevel);
+        exportFile = Files.createTempFile("workers-export", ".ndjson.gz");
+        importFile = Files.createTempFile("workers-import", ".ndjson.gz");
+        snapshotService.exportWorkers(importFile, false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        backends.close();
+        for (Path file : new Path[]{exportFile, importFile}) {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".checkpoint"));
+        }
+    }
+
+    @Benchmark
+    public long export(Transferred transferred) throws IOException {
+        return transferred.add(snapshotService.exportWorkers(exportFile, false));
+    }
+
+    @Benchmark
+    public long importSnapshot(Transferred transferred) throws IOException {
+        SnapshotResult result = snapshotService.importWorkers(importFile, importParallelism);
+        if (backends.drainImportedDocuments() != documents) {
+            throw new IllegalStateException("Not every worker was imported");
+        }
+        return transferred.add(result);
+    }
+
+    /**
+     * Workers and compressed bytes moved in an iteration, reported by JMH next to the run time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Transferred {
+
+        public long workers;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            workers = 0;
+            bytes = 0;
+        }
+
+        long add(SnapshotResult result) {
+            workers += result.getDocuments();
+            bytes += result.getBytes();
+            return result.getDocuments();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionRequest;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionResult;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.service.OutboxRelay;
+import com.jfd.worker.mgmt.service.WorkerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Shift start/end for {@value #WORKERS} workers: the bulk status transition against one status
+ * update per worker. Each invocation moves every worker between ON_DUTY and REGULAR and relays the
+ * resulting change events to Kafka. With a simulated MongoDB round-trip the per-worker path pays it
+ * once or twice per worker, the bulk path a few times per batch of 1000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 4)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WorkerStatusTransitionBenchmark {
+
+    private static final int WORKERS = 10_000;
+
+    @Param({"0", "200"})
+    private long mongoRoundTripMicros;
+
+    private InProcessBackends backends;
+    private WorkerService workerService;
+    private OutboxRelay outboxRelay;
+    private List<Integer> ids;
+    private WorkerStatus target;
+
+    @Setup
+    public void setUp() {
+        backends = new InProcessBackends(Duration.ofNanos(mongoRoundTripMicros * 1_000));
+        backends.seedWorkers(WORKERS, WorkerStatus.REGULAR);
+        workerService = backends.workerService(WorkerEventFormat.BINARY, 1000);
+        outboxRelay = backends.outboxRelay();
+        ids = IntStream.rangeClosed(1, WORKERS).boxed().toList();
+        target = WorkerStatus.REGULAR;
+    }
+
+    @Setup(Level.Invocation)
+    public void nextTarget() {
+        target = target == WorkerStatus.ON_DUTY ? WorkerStatus.REGULAR : WorkerStatus.ON_DUTY; // Shift start, then end
+    }
+
+    @TearDown(Level.Invocation)
+    public void checkAllMoved() {
+        if (backends.countWorkers(target) != WORKERS) {
+            throw new IllegalStateException("Not every worker was moved to " + target);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        backends.close();
+    }
+
+    @Benchmark
+    public int bulkTransition() {
+        StatusTransitionRequest request = new StatusTransitionRequest();
+        request.setTargetStatus(target);
+        request.setIds(ids);
+        StatusTransitionResult result = workerService.transitionStatuses(request);
+        outboxRelay.relay();
+        return result.getTransitioned() + backends.drainSentEvents();
+    }
+
+    @Benchmark
+    public int perWorkerUpdates() {
+        WorkerPatch patch = new WorkerPatch();
+        patch.setStatus(target);
+        for (Integer id : ids) {
+            workerService.patchWorker(id, patch);
+        }
+        outboxRelay.relay();
+        return backends.drainSentEvents();
+    }
+}
@@ -0,0 +1,67 @@
+package com.jfd.worker.mgmt.benchmark;
+
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of {@link WorkerInformation}, as done for every registration request.
+ * The invalid case fails only the phone number {@code @Pattern}, so it also measures building
+ * the constraint violation and interpolating its message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkerValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private WorkerInformation validWorker;
+    private WorkerInformation invalidPhoneWorker;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validWorker = InProcessBackends.validWorker();
+        invalidPhoneWorker = InProcessBackends.validWorker();
+        invalidPhoneWorker.setPhoneNumber("call me maybe");
+        if (!validator.validate(validWorker).isEmpty() || validator.validate(invalidPhoneWorker).size() != 1) {
+            throw new IllegalStateException("Benchmark fixtures do not validate as expected");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<WorkerInformation>> validWorker() {
+        return validator.validate(validWorker);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<WorkerInformation>> invalidPhoneNumber() {
+        return validator.validate(invalidPhoneWorker);
+    }
+}
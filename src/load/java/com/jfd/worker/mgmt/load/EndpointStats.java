@@ -0,0 +1,66 @@
+package com.jfd.worker.mgmt.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one endpoint in one load step: the latency of successful requests in microseconds,
+ * measured from the time the request was due to be sent, and the failures by HTTP status.
+ */
+final class EndpointStats {
+
+    static final int IO_ERROR = -1; // Connection refused, reset or timed out
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final ConcurrentMap<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param intendedStartNanos When the request was due, so time spent waiting to be sent counts.
+     * @param status The HTTP status, or {@link #IO_ERROR}.
+     */
+    void record(long intendedStartNanos, int status) {
+        if (status >= 200 && status < 300) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+            latencyMicros.recordValue(Math.min(micros, latencyMicros.getHighestTrackableValue()));
+        } else {
+            failures.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Counts a request that was not sent because the generator's in-flight limit was reached.
+     */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    Histogram latencyMicros() {
+        return latencyMicros;
+    }
+
+    long succeeded() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long failed() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<Integer, Long> failuresByStatus() {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        failures.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return byStatus;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
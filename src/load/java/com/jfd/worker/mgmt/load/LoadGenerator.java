@@ -0,0 +1,199 @@
+package com.jfd.worker.mgmt.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load against the worker API: requests arrive as a Poisson process at the offered rate,
+ * whether or not earlier ones have completed, the way independent clients arrive in production. Each
+ * request runs on its own virtual thread, and its latency is measured from the time it was due, so
+ * a service that falls behind shows up in the percentiles instead of silently lowering the rate
+ * (coordinated omission).
+ * <p>
+ * Lookups and updates pick registered workers with a hot set: {@code hotShare} of them go to the
+ * first {@code hotFraction} of the IDs, like the recently active workers that dominate real reads.
+ * At most {@code maxInFlight} requests are outstanding; arrivals beyond that are counted as dropped
+ * rather than queued, which would hide the saturation.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private static final int PRELOAD_BATCH_SIZE = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI target;
+    private final OperationMix mix;
+    private final SyntheticWorkers workers = new SyntheticWorkers();
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+    private final double hotFraction;
+    private final double hotShare;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    /**
+     * Constructor for LoadGenerator.
+     * @param target Base URL of the service, e.g. http://localhost:8081.
+     * @param mix The operation mix.
+     * @param hotFraction Fraction of the workers that are hot.
+     * @param hotShare Fraction of lookups and updates that go to the hot workers.
+     * @param maxInFlight Maximum outstanding requests.
+     * @param objectMapper Mapper for request and response bodies.
+     */
+    LoadGenerator(URI target, OperationMix mix, double hotFraction, double hotShare, int maxInFlight,
+                  ObjectMapper objectMapper) {
+        this.target = target;
+        this.mix = mix;
+        this.hotFraction = hotFraction;
+        this.hotShare = hotShare;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Registers workers through the bulk endpoint, so lookups and updates have targets from the start.
+     * @param count Number of workers to register.
+     */
+    void preload(int count) throws IOException, InterruptedException {
+        for (int offset = 0; offset < count; offset += PRELOAD_BATCH_SIZE) {
+            List<WorkerInformation> batch = new ArrayList<>(PRELOAD_BATCH_SIZE);
+            for (int i = offset; i < Math.min(count, offset + PRELOAD_BATCH_SIZE); i++) {
+                batch.add(workers.worker());
+            }
+            HttpResponse<byte[]> response = client.send(json("PUT", "/api/worker/registration/bulk", batch),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Preload failed with " + response.statusCode() + ": " + new String(response.body()));
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                if (result.hasNonNull("id")) {
+                    ids.add(result.get("id").asInt());
+                }
+            }
+        }
+        if (ids.isEmpty() && (mix.contains(Operation.GET) || mix.contains(Operation.UPDATE))) {
+            throw new IllegalStateException("Lookups and updates need registered workers; set load.preload above 0");
+        }
+    }
+
+    /**
+     * Offers load at a fixed rate for a while and waits for the outstanding requests.
+     * @param rate Arrivals per second.
+     * @param duration How long to offer the load.
+     * @return The results per operation.
+     */
+    StepReport run(double rate, Duration duration) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        SplittableRandom random = new SplittableRandom();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long due = start;
+        while (true) {
+            due += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9); // Exponential inter-arrival time
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.next(random);
+            EndpointStats endpoint = stats.get(operation);
+            if (!inFlight.tryAcquire()) {
+                endpoint.recordDropped();
+                continue;
+            }
+            long intendedStart = due;
+            executor.execute(() -> {
+                try {
+                    endpoint.record(intendedStart, send(operation));
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        // Drain: the step is over once every request it sent has completed
+        if (!inFlight.tryAcquire(maxInFlight, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Requests still outstanding after the request timeout");
+        }
+        inFlight.release(maxInFlight);
+        return new StepReport(rate, Duration.ofNanos(System.nanoTime() - start), stats);
+    }
+
+    private int send(Operation operation) {
+        try {
+            HttpRequest request = switch (operation) {
+                case REGISTER -> json("PUT", "/api/worker/registration", workers.worker());
+                case GET -> HttpRequest.newBuilder(target.resolve("/api/worker/" + pickId()))
+                        .timeout(REQUEST_TIMEOUT).GET().build();
+                case UPDATE -> json("PATCH", "/api/worker/" + pickId(), workers.move());
+                case LIST -> HttpRequest.newBuilder(target.resolve("/api/worker/all?limit=100"))
+                        .header("Accept", "application/json")
+                        .timeout(REQUEST_TIMEOUT).GET().build();
+            };
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (operation == Operation.REGISTER && response.statusCode() == 201) {
+                ids.add(objectMapper.readTree(response.body()).get("id").asInt());
+            }
+            return response.statusCode();
+        } catch (IOException e) {
+            return EndpointStats.IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EndpointStats.IO_ERROR;
+        }
+    }
+
+    private int pickId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (ids) {
+            int size = ids.size();
+            int hot = Math.max(1, (int) (size * hotFraction));
+            return ids.get(random.nextDouble() < hotShare ? random.nextInt(hot) : random.nextInt(size));
+        }
+    }
+
+    private HttpRequest json(String method, String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(target.resolve(path))
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+}
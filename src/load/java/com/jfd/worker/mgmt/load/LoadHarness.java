@@ -0,0 +1,149 @@
+package com.jfd.worker.mgmt.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs a production-like traffic mix against the whole service and steps the offered rate up to
+ * find where a single machine saturates.
+ * <p>
+ * Options are {@code --load.*=value}; every other {@code --name=value} argument is passed to the
+ * application as a property (e.g. {@code --app.admission.enabled=false}). Without
+ * {@code --load.target} the application is started in this JVM against {@link StandIns}; with it,
+ * an already running instance is loaded instead.
+ * <p>
+ * Each step prints throughput and latency percentiles per endpoint. The output directory gets one
+ * HdrHistogram percentile distribution per step and endpoint ({@code <rate>rps-<operation>.hgrm},
+ * in milliseconds, for the HdrHistogram plotter), all intervals in {@code latency.hlog}, and a
+ * {@code summary.csv}.
+ */
+public final class LoadHarness {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("load.rates", "100,200,400,800,1600,3200"), // Offered requests per second, one step each
+            Map.entry("load.step", "PT30S"),
+            Map.entry("load.warmup", "PT15S"), // At the first rate, not reported
+            Map.entry("load.mix", "register:10,get:60,update:15,list:15"),
+            Map.entry("load.preload", "10000"),
+            Map.entry("load.hot-fraction", "0.1"),
+            Map.entry("load.hot-share", "0.8"),
+            Map.entry("load.max-in-flight", "5000"),
+            Map.entry("load.stop-when-saturated", "true"),
+            Map.entry("load.output", "target/load"),
+            Map.entry("load.mongo-image", "mongo:7.0"));
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        Map<String, String> applicationProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Arguments are --name=value, got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            (name.startsWith("load.") ? options : applicationProperties).put(name, arg.substring(separator + 1));
+        }
+
+        StandIns standIns = null;
+        URI target;
+        if (options.containsKey("load.target")) {
+            target = URI.create(options.get("load.target"));
+        } else {
+            standIns = StandIns.start(options.get("load.mongo-image"), applicationProperties);
+            target = standIns.target();
+        }
+        try {
+            run(target, options);
+        } finally {
+            if (standIns != null) {
+                standIns.close();
+            }
+        }
+    }
+
+    private static void run(URI target, Map<String, String> options) throws Exception {
+        OperationMix mix = OperationMix.parse(options.get("load.mix"));
+        Path output = Files.createDirectories(Path.of(options.get("load.output")));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<Double> rates = new ArrayList<>();
+        for (String rate : options.get("load.rates").split(",")) {
+            rates.add(Double.parseDouble(rate.trim()));
+        }
+        Duration step = Duration.parse(options.get("load.step"));
+
+        try (LoadGenerator generator = new LoadGenerator(target, mix,
+                Double.parseDouble(options.get("load.hot-fraction")), Double.parseDouble(options.get("load.hot-share")),
+                Integer.parseInt(options.get("load.max-in-flight")), objectMapper);
+             PrintStream summary = new PrintStream(Files.newOutputStream(output.resolve("summary.csv")), true, StandardCharsets.UTF_8);
+             PrintStream hlog = new PrintStream(Files.newOutputStream(output.resolve("latency.hlog")), true, StandardCharsets.UTF_8)) {
+            System.out.printf("Loading %s with %s%n", target, mix);
+            generator.preload(Integer.parseInt(options.get("load.preload")));
+            generator.run(rates.get(0), Duration.parse(options.get("load.warmup")));
+
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            long runStart = System.currentTimeMillis();
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(runStart);
+            logWriter.outputLegend();
+            summary.println("offered_rate,endpoint,ok_per_second,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms,failed,dropped");
+
+            Double highestUnsaturated = null;
+            for (double rate : rates) {
+                double stepStart = (System.currentTimeMillis() - runStart) / 1000.0;
+                StepReport report = generator.run(rate, step);
+                double stepEnd = (System.currentTimeMillis() - runStart) / 1000.0;
+                report.print(System.out);
+                write(report, output, summary, logWriter, stepStart, stepEnd);
+                if (!report.saturated()) {
+                    highestUnsaturated = rate;
+                } else if (Boolean.parseBoolean(options.get("load.stop-when-saturated"))) {
+                    break;
+                }
+            }
+            System.out.println(highestUnsaturated == null
+                    ? "\nSaturated at the lowest offered rate."
+                    : String.format("%nHighest offered rate without saturation: %.0f req/s.", highestUnsaturated));
+        }
+    }
+
+    private static void write(StepReport report, Path output, PrintStream summary, HistogramLogWriter logWriter,
+                              double stepStart, double stepEnd) throws IOException {
+        for (Map.Entry<Operation, EndpointStats> entry : report.endpoints().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            if (stats.succeeded() + stats.failed() + stats.dropped() == 0) {
+                continue;
+            }
+            String name = String.format(Locale.ROOT, "%.0frps-%s", report.offeredRate(), entry.getKey().key());
+            Histogram latency = stats.latencyMicros();
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(output.resolve(name + ".hgrm")), true, StandardCharsets.UTF_8)) {
+                latency.outputPercentileDistribution(hgrm, 1000.0); // Microseconds to milliseconds
+            }
+            latency.setTag(name);
+            logWriter.outputIntervalHistogram(stepStart, stepEnd, latency, 1000.0);
+            summary.printf(Locale.ROOT, "%.0f,%s,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d%n",
+                    report.offeredRate(), entry.getKey().key(), report.throughput(stats.succeeded()),
+                    latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0, stats.failed(), stats.dropped());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.jfd.worker.mgmt.load;
+
+/**
+ * The requests the load generator sends, named as in the {@code load.mix} option.
+ */
+enum Operation {
+    REGISTER("register", "PUT /api/worker/registration"),
+    GET("get", "GET /api/worker/{id}"),
+    UPDATE("update", "PATCH /api/worker/{id}"),
+    LIST("list", "GET /api/worker/all");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key + " in load.mix");
+    }
+}
@@ -0,0 +1,81 @@
+package com.jfd.worker.mgmt.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice of the next operation, parsed from e.g. {@code register:10,get:60,update:15,list:15}.
+ * Weights are relative and need not add up to 100.
+ */
+final class OperationMix {
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private OperationMix(Map<Operation, Double> weights) {
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulative = new double[operations.length];
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]) / total;
+            cumulative[i] = sum;
+        }
+    }
+
+    static OperationMix parse(String mix) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix entries are operation:weight, got " + entry);
+            }
+            double weight = Double.parseDouble(parts[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in load.mix: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(Operation.of(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight");
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation next(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (r < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    boolean contains(Operation operation) {
+        for (Operation candidate : operations) {
+            if (candidate == operation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder();
+        double previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(operations[i].key()).append(' ')
+                    .append(Math.round((cumulative[i] - previous) * 100)).append('%');
+            previous = cumulative[i];
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.jfd.worker.mgmt.load;
+
+import com.jfd.worker.mgmt.WorkerMgmtApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The service under load, started in this JVM against stand-ins for its backends: a single-node
+ * MongoDB replica set in a container (transactions need a replica set, so an in-memory fake would
+ * not run the real write path) and an in-process Kafka broker. Config Server and Eureka are off.
+ */
+final class StandIns implements AutoCloseable {
+
+    private final MongoDBContainer mongo;
+    private final EmbeddedKafkaBroker kafka;
+    private final ConfigurableApplicationContext application;
+
+    private StandIns(MongoDBContainer mongo, EmbeddedKafkaBroker kafka, ConfigurableApplicationContext application) {
+        this.mongo = mongo;
+        this.kafka = kafka;
+        this.application = application;
+    }
+
+    /**
+     * Starts MongoDB, Kafka and the application.
+     * @param mongoImage The MongoDB image, e.g. mongo:7.0.
+     * @param overrides Application properties overriding the defaults set here.
+     * @return The running stand-ins.
+     */
+    static StandIns start(String mongoImage, Map<String, String> overrides) {
+        MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse(mongoImage));
+        mongo.start();
+        EmbeddedKafkaBroker kafka = new EmbeddedKafkaKraftBroker(1, 4,
+                "worker-registration", "worker-updates", "worker-cache-invalidation");
+        kafka.afterPropertiesSet();
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.data.mongodb.uri", mongo.getReplicaSetUrl("workers"));
+        properties.put("spring.kafka.producer.bootstrap-servers", kafka.getBrokersAsString());
+        properties.put("app.kafka.topic.worker.registration", "worker-registration");
+        properties.put("server.port", "0");
+        properties.put("spring.cloud.config.enabled", "false");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("spring.threads.virtual.enabled", "true");
+        properties.put("logging.level.com.jfd.worker.mgmt", "WARN"); // Per-request info logging would dominate
+        properties.putAll(overrides);
+        ConfigurableApplicationContext application = new SpringApplicationBuilder(WorkerMgmtApplication.class)
+                .properties(properties)
+                .run();
+        return new StandIns(mongo, kafka, application);
+    }
+
+    /**
+     * @return Base URL of the running application.
+     */
+    URI target() {
+        return URI.create("http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @Override
+    public void close() {
+        application.close();
+        kafka.destroy();
+        mongo.stop();
+    }
+}
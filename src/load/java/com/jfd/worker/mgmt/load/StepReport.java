@@ -0,0 +1,60 @@
+package com.jfd.worker.mgmt.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Results of one load step: throughput and latency percentiles per endpoint.
+ * A step is saturated when the service completed noticeably fewer requests than were offered,
+ * or the generator had to drop arrivals because too many requests were outstanding.
+ */
+record StepReport(double offeredRate, Duration elapsed, Map<Operation, EndpointStats> endpoints) {
+
+    private static final double SATURATION_THRESHOLD = 0.95;
+
+    long succeeded() {
+        return endpoints.values().stream().mapToLong(EndpointStats::succeeded).sum();
+    }
+
+    long failed() {
+        return endpoints.values().stream().mapToLong(EndpointStats::failed).sum();
+    }
+
+    long dropped() {
+        return endpoints.values().stream().mapToLong(EndpointStats::dropped).sum();
+    }
+
+    double throughput(long requests) {
+        return requests * 1e9 / elapsed.toNanos();
+    }
+
+    boolean saturated() {
+        return dropped() > 0 || throughput(succeeded()) < offeredRate * SATURATION_THRESHOLD;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nOffered %.0f req/s for %.1f s: %.1f req/s succeeded, %d failed, %d dropped%s%n",
+                offeredRate, elapsed.toNanos() / 1e9, throughput(succeeded()), failed(), dropped(),
+                saturated() ? "  << SATURATED" : "");
+        out.printf("  %-30s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "failures");
+        endpoints.forEach((operation, stats) -> {
+            if (stats.succeeded() + stats.failed() + stats.dropped() == 0) {
+                return;
+            }
+            Histogram latency = stats.latencyMicros();
+            out.printf("  %-30s %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%s%n",
+                    operation.endpoint(), throughput(stats.succeeded()),
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0, stats.failuresByStatus(),
+                    stats.dropped() > 0 ? " dropped=" + stats.dropped() : "");
+        });
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.jfd.worker.mgmt.load;
+
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates valid, distinct workers spread the way the real ones are: most live within some
+ * kilometres of a large city, weighted by the city's share of the workforce, the rest anywhere in
+ * the country. Phone numbers are unique within a run and start at a random offset, so runs against
+ * the same database do not collide on the unique phone number index.
+ */
+final class SyntheticWorkers {
+
+    private record Metro(String name, double latitude, double longitude, double weight) {
+    }
+
+    private static final List<Metro> METROS = List.of(
+            new Metro("Delhi", 28.6139, 77.2090, 0.20),
+            new Metro("Mumbai", 19.0760, 72.8777, 0.18),
+            new Metro("Bengaluru", 12.9716, 77.5946, 0.16),
+            new Metro("Hyderabad", 17.3850, 78.4867, 0.10),
+            new Metro("Chennai", 13.0827, 80.2707, 0.10),
+            new Metro("Kolkata", 22.5726, 88.3639, 0.10),
+            new Metro("Pune", 18.5204, 73.8567, 0.08),
+            new Metro("Ahmedabad", 23.0225, 72.5714, 0.08));
+    private static final double METRO_SHARE = 0.9;
+    private static final double METRO_SPREAD_DEGREES = 0.08; // Standard deviation, about 9 km
+    private static final List<String> FIRST_NAMES = List.of("Asha", "Ravi", "Priya", "Suresh", "Lakshmi", "Arjun",
+            "Meena", "Imran", "Kavita", "Manoj", "Farhan", "Deepa");
+    private static final List<String> LAST_NAMES = List.of("Kumar", "Sharma", "Reddy", "Das", "Patel", "Iyer",
+            "Khan", "Singh", "Nair", "Gupta");
+    private static final List<String> STREETS = List.of("MG Road", "Station Road", "Park Street", "Main Bazaar",
+            "Ring Road", "Gandhi Nagar", "Lake View Road");
+
+    private final AtomicLong phoneNumbers = new AtomicLong(ThreadLocalRandom.current().nextLong(900_000_000L));
+
+    /**
+     * @return A new worker that passes registration validation.
+     */
+    WorkerInformation worker() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Metro metro = metro(random);
+        double[] position = position(random, metro);
+        WorkerInformation worker = new WorkerInformation();
+        worker.setName(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+        worker.setAge(18 + random.nextInt(43));
+        worker.setPhoneNumber(String.format("+91 9%09d", phoneNumbers.getAndIncrement() % 1_000_000_000L));
+        if (random.nextBoolean()) {
+            worker.setEkycId(EkycId.AADHAR);
+            worker.setEkycData(String.format("%04d-%04d-%04d", random.nextInt(10_000), random.nextInt(10_000), random.nextInt(10_000)));
+        } else {
+            worker.setEkycId(EkycId.PAN);
+            worker.setEkycData("ABCDE" + String.format("%04d", random.nextInt(10_000)) + "F");
+        }
+        worker.setAddress((1 + random.nextInt(200)) + ", " + pick(random, STREETS) + ", " + metro.name());
+        worker.setLatitude(position[0]);
+        worker.setLongitude(position[1]);
+        double status = random.nextDouble();
+        worker.setStatus(status < 0.6 ? WorkerStatus.ON_DUTY : status < 0.9 ? WorkerStatus.REGULAR : WorkerStatus.REGISTERED);
+        return worker;
+    }
+
+    /**
+     * @return A patch moving a worker to a new position, as a location update from the app would.
+     */
+    Map<String, Object> move() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] position = position(random, metro(random));
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("latitude", position[0]);
+        patch.put("longitude", position[1]);
+        return patch;
+    }
+
+    private static Metro metro(ThreadLocalRandom random) {
+        double r = random.nextDouble();
+        for (Metro metro : METROS) {
+            r -= metro.weight();
+            if (r < 0) {
+                return metro;
+            }
+        }
+        return METROS.get(METROS.size() - 1);
+    }
+
+    private static double[] position(ThreadLocalRandom random, Metro metro) {
+        if (random.nextDouble() >= METRO_SHARE) {
+            // Anywhere in the country's bounding box
+            return new double[]{8.0 + random.nextDouble() * 25.0, 69.0 + random.nextDouble() * 20.0};
+        }
+        return new double[]{metro.latitude() + random.nextGaussian() * METRO_SPREAD_DEGREES,
+                metro.longitude() + random.nextGaussian() * METRO_SPREAD_DEGREES};
+    }
+
+    private static String pick(ThreadLocalRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -3,18 +3,18 @@ package com.jfd.worker.mgmt;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for the Worker Registration service.
  * This application acts as a REST API, persists data to MongoDB, and produces messages to Kafka.
- * It's enabled for service discovery and configuration refresh.
+ * It's enabled for service discovery and reads its configuration from Spring Cloud Config Server.
  */
 @SpringBootApplication
 @EnableDiscoveryClient // Enables service registration and discovery (e.g., with Eureka)
-@RefreshScope // Allows configuration to be refreshed at runtime (e.g., from Spring Cloud Config Server)
 @EnableAsync
+@EnableScheduling // Runs the outbox relay
 public class WorkerMgmtApplication {
 
 	public static void main(String[] args) {
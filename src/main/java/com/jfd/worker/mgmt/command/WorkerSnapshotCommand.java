@@ -0,0 +1,64 @@
+package com.jfd.worker.mgmt.command;
+
+import com.jfd.worker.mgmt.model.snapshot.SnapshotResult;
+import com.jfd.worker.mgmt.service.WorkerSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs a workers snapshot export or import instead of serving traffic, e.g.
+ * {@code java -jar app.jar --spring.main.web-application-type=none --app.snapshot.command=export
+ * --app.snapshot.file=workers.ndjson.gz}. The application exits when the command is done;
+ * a failed command fails startup and exits with a non-zero status.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.snapshot.command")
+public class WorkerSnapshotCommand implements ApplicationRunner {
+
+    private final WorkerSnapshotService workerSnapshotService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.snapshot.command}")
+    private String command;
+
+    @Value("${app.snapshot.file}")
+    private Path file;
+
+    @Value("${app.snapshot.resume:false}")
+    private boolean resume;
+
+    @Value("${app.snapshot.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int parallelism;
+
+    /**
+     * Constructor for WorkerSnapshotCommand.
+     * @param workerSnapshotService Service doing the export or import.
+     * @param context The application context, closed when the command is done.
+     */
+    public WorkerSnapshotCommand(WorkerSnapshotService workerSnapshotService, ConfigurableApplicationContext context) {
+        this.workerSnapshotService = workerSnapshotService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        SnapshotResult result = switch (command) {
+            case "export" -> workerSnapshotService.exportWorkers(file, resume);
+            case "import" -> workerSnapshotService.importWorkers(file, parallelism);
+            default -> throw new IllegalArgumentException("Unknown snapshot command '" + command + "', expected export or import");
+        };
+        log.info("Snapshot {} of {} finished: {} workers in {} ms ({} workers/s, {} bytes).", command, file,
+                result.getDocuments(), result.getDurationMillis(), Math.round(result.getDocumentsPerSecond()), result.getBytes());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
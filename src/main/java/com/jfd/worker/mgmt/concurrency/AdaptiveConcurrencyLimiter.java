@@ -0,0 +1,183 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for a class of requests that adapts to the measured latency.
+ * <p>
+ * Unlike {@link ConcurrencyLimiter}, callers never wait: a request either gets a permit at once or
+ * is rejected, so excess load is shed before it can occupy a request thread. The limit follows the
+ * gradient between the long-term and the recent latency: while recent latency stays within
+ * {@value #TOLERANCE}x the long-term baseline the limit grows by about its square root per update,
+ * and as requests start queueing behind a slow backend it shrinks in proportion. A request dropped
+ * because the backend is saturated cuts the limit multiplicatively (AIMD backoff). The limit is only
+ * raised while at least half of it is in use, so an idle endpoint does not grow an unearned limit.
+ * <p>
+ * Limit, in-flight requests and rejections are exposed as {@code http.admission.*} meters tagged
+ * with the endpoint class.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5; // Recent latency this much above the baseline still counts as healthy
+    private static final double SHORT_ALPHA = 0.1; // EWMA weight of the recent latency, about 10 samples
+    private static final double LONG_ALPHA = 1.0 / 600; // EWMA weight of the baseline, about 600 samples
+    private static final double SMOOTHING = 0.2; // Share of each computed limit applied per update
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejected;
+    private volatile int limit;
+    // Guarded by lock
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Constructor for AdaptiveConcurrencyLimiter.
+     * @param name Endpoint class, used as the meter tag (e.g. "read", "write").
+     * @param initialLimit Limit until enough latency has been measured.
+     * @param minLimit The limit never drops below this.
+     * @param maxLimit The limit never grows beyond this.
+     * @param meterRegistry Registry for the admission meters.
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, MeterRegistry meterRegistry) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits for " + name + " must satisfy 1 <= min <= initial <= max");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        Gauge.builder("http.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit).tag("class", name)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("http.admission.in.flight", inFlight, AtomicInteger::get).tag("class", name)
+                .description("Requests currently admitted").register(meterRegistry);
+        this.rejected = Counter.builder("http.admission.rejected").tag("class", name)
+                .description("Requests shed because the concurrency limit was reached").register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if the limit allows it.
+     * @return A permit that must be released once the request completes, or empty if the request should be shed.
+     */
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    /**
+     * Feeds one completed request into the limit.
+     *
+     * @param rttNanos Duration of the request.
+     * @param inFlightAtStart Requests in flight when it was admitted, itself included.
+     * @param dropped Whether the request failed because a backend was saturated.
+     */
+    void update(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (!lock.tryLock()) {
+            return; // Another completion is updating the limit; skipping one sample does not matter
+        }
+        try {
+            double newLimit;
+            if (dropped) {
+                newLimit = estimatedLimit * BACKOFF_RATIO;
+            } else {
+                shortRtt = shortRtt == 0 ? rttNanos : shortRtt + (rttNanos - shortRtt) * SHORT_ALPHA;
+                longRtt = longRtt == 0 ? rttNanos : longRtt + (rttNanos - longRtt) * LONG_ALPHA;
+                if (longRtt > 2 * shortRtt) {
+                    longRtt *= 0.95; // Latency has dropped for good; let the baseline follow it down
+                }
+                if (inFlightAtStart < estimatedLimit / 2) {
+                    return;
+                }
+                double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+                newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            }
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return (long) rejected.count();
+    }
+
+    /**
+     * An admitted request. Exactly one of the release methods takes effect.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The request completed; its latency is a sample for the limit.
+         */
+        public void success() {
+            release(false, true);
+        }
+
+        /**
+         * The request failed because a backend was saturated; the limit backs off.
+         */
+        public void dropped() {
+            release(true, true);
+        }
+
+        /**
+         * The request completed without saying anything about load (e.g. it failed); the limit is unchanged.
+         */
+        public void ignore() {
+            release(false, false);
+        }
+
+        private void release(boolean dropped, boolean sample) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            if (sample) {
+                update(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/admission}) showing the current adaptive limits, the requests
+ * in flight and the number of shed requests per endpoint class, plus the per-client rate limiter when
+ * it is enabled. The same values are published as {@code http.admission.*} meters.
+ */
+@Endpoint(id = "admission")
+public class AdmissionControlEndpoint {
+
+    private final List<AdaptiveConcurrencyLimiter> limiters;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    /**
+     * Constructor for AdmissionControlEndpoint.
+     * @param limiters The adaptive limiters, one per endpoint class.
+     * @param rateLimiter The per-client rate limiter, or null if rate limiting is disabled.
+     */
+    public AdmissionControlEndpoint(List<AdaptiveConcurrencyLimiter> limiters, TokenBucketRateLimiter rateLimiter) {
+        this.limiters = limiters;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> admission() {
+        Map<String, Object> classes = new LinkedHashMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : limiters) {
+            classes.put(limiter.getName(), Map.of(
+                    "limit", limiter.getLimit(),
+                    "inFlight", limiter.getInFlight(),
+                    "rejected", limiter.getRejected()));
+        }
+        Map<String, Object> admission = new LinkedHashMap<>();
+        admission.put("classes", classes);
+        if (rateLimiter != null) {
+            admission.put("rateLimit", Map.of(
+                    "clients", rateLimiter.getClients(),
+                    "rejected", rateLimiter.getRateLimited()));
+        }
+        return admission;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jfd.worker.mgmt.concurrency;
+
+/**
+ * Thrown when a call could not get a permit from a {@link ConcurrencyLimiter} in time.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,129 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bounds the number of concurrent calls into a backend (MongoDB, Kafka).
+ * <p>
+ * With virtual threads the request concurrency is no longer capped by a thread pool, so without
+ * this every blocked request would queue inside the driver's connection pool. Callers wait at most
+ * the acquire timeout for a permit and then fail fast with {@link ConcurrencyLimitExceededException}.
+ * Limit, permits in use, waiting callers and rejections are exposed as {@code resource.limiter.*}
+ * meters tagged with the resource name.
+ */
+public class ConcurrencyLimiter {
+
+    private final String resource;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    /**
+     * Constructor for ConcurrencyLimiter.
+     * @param resource Name of the backend, used as the meter tag.
+     * @param limit Maximum number of concurrent calls.
+     * @param acquireTimeout Maximum time to wait for a permit.
+     * @param meterRegistry Registry for the limiter meters.
+     */
+    public ConcurrencyLimiter(String resource, int limit, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Concurrency limit for " + resource + " must be at least 1");
+        }
+        this.resource = resource;
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("resource.limiter.limit", () -> limit).tag("resource", resource)
+                .description("Maximum concurrent calls").register(meterRegistry);
+        Gauge.builder("resource.limiter.in.use", inUse, AtomicInteger::get).tag("resource", resource)
+                .description("Calls currently holding a permit").register(meterRegistry);
+        Gauge.builder("resource.limiter.waiting", waiting, AtomicInteger::get).tag("resource", resource)
+                .description("Calls waiting for a permit").register(meterRegistry);
+        this.rejected = Counter.builder("resource.limiter.rejected").tag("resource", resource)
+                .description("Calls that timed out waiting for a permit").register(meterRegistry);
+    }
+
+    /**
+     * Runs the action while holding a permit.
+     *
+     * @param action The backend call.
+     * @return The result of the action.
+     * @throws ConcurrencyLimitExceededException if no permit became free within the acquire timeout.
+     */
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        inUse.incrementAndGet();
+        try {
+            return action.get();
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs the action while holding a permit.
+     * @param action The backend call.
+     */
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Opens a stream while holding a permit and keeps the permit until the stream is closed, so
+     * iterating a cursor counts against the limit, not just opening it. The caller must close the stream.
+     *
+     * @param open Opens the backend stream, e.g. a MongoDB cursor.
+     * @return The stream; closing it releases the permit.
+     * @throws ConcurrencyLimitExceededException if no permit became free within the acquire timeout.
+     */
+    public <T> Stream<T> stream(Supplier<Stream<T>> open) {
+        acquire();
+        inUse.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                inUse.decrementAndGet();
+                permits.release();
+            }
+        };
+        try {
+            return open.get().onClose(release);
+        } catch (RuntimeException | Error e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    private void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException("Too many concurrent " + resource + " calls");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException("Interrupted while waiting for a " + resource + " permit");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client request rate limit, one token bucket per client.
+ * <p>
+ * Each bucket holds up to {@code capacity} tokens and refills continuously at {@code refillPerSecond};
+ * a request takes one token. Buckets of clients that have been idle for the expiry time are dropped,
+ * and the number of tracked clients is bounded, so the limiter cannot be exhausted by many client IDs.
+ * Rejections are counted as {@code http.admission.rate.limited}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Cache<String, Bucket> buckets;
+    private final Counter rateLimited;
+    private final LongSupplier nanoTime;
+
+    /**
+     * Constructor for TokenBucketRateLimiter.
+     * @param capacity Burst size: tokens a bucket holds when full.
+     * @param refillPerSecond Sustained requests per second per client.
+     * @param maximumClients Maximum number of clients tracked at once.
+     * @param idleExpiry Time after which an idle client's bucket is dropped (and starts full again).
+     * @param meterRegistry Registry for the rate limiter meters.
+     */
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, long maximumClients, Duration idleExpiry,
+                                  MeterRegistry meterRegistry) {
+        this(capacity, refillPerSecond, maximumClients, idleExpiry, meterRegistry, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, double refillPerSecond, long maximumClients, Duration idleExpiry,
+                           MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.nanoTime = nanoTime;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        Gauge.builder("http.admission.rate.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a token bucket").register(meterRegistry);
+        this.rateLimited = Counter.builder("http.admission.rate.limited")
+                .description("Requests rejected by the per-client rate limit").register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     * @param client ID of the client.
+     * @return Zero if the request may proceed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String client) {
+        long waitNanos = buckets.get(client, key -> new Bucket(capacity)).take(nanoTime.getAsLong());
+        if (waitNanos > 0) {
+            rateLimited.increment();
+        }
+        return waitNanos;
+    }
+
+    public long getRateLimited() {
+        return (long) rateLimited.count();
+    }
+
+    public long getClients() {
+        return buckets.estimatedSize();
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long refilledAt = nanoTime.getAsLong();
+
+        private Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        // Short and non-blocking, so holding the monitor cannot pin a virtual thread for long
+        private synchronized long take(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+    }
+}
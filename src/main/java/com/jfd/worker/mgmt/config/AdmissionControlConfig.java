@@ -0,0 +1,106 @@
+package com.jfd.worker.mgmt.config;
+
+import com.jfd.worker.mgmt.concurrency.AdaptiveConcurrencyLimiter;
+import com.jfd.worker.mgmt.concurrency.AdmissionControlEndpoint;
+import com.jfd.worker.mgmt.concurrency.TokenBucketRateLimiter;
+import com.jfd.worker.mgmt.controller.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration class for admission control in front of the worker API.
+ * <p>
+ * Reads and writes get separate adaptive concurrency limits ({@code app.admission.read.*} and
+ * {@code app.admission.write.*}); the per-client token buckets are off unless
+ * {@code app.admission.rate-limit.enabled} is set. They are keyed by the remote address unless
+ * {@code app.admission.rate-limit.client-id-header} names a header to key them by, which is only safe
+ * behind a gateway that sets it. Admission control as a whole is switched by {@code app.admission.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    /**
+     * Configures the adaptive limit for GET requests.
+     *
+     * @return An AdaptiveConcurrencyLimiter for the "read" class.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter readAdmissionLimiter(@Value("${app.admission.read.initial-limit:200}") int initialLimit,
+                                                           @Value("${app.admission.read.min-limit:20}") int minLimit,
+                                                           @Value("${app.admission.read.max-limit:1000}") int maxLimit,
+                                                           MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit, meterRegistry);
+    }
+
+    /**
+     * Configures the adaptive limit for registrations, updates and deletes.
+     *
+     * @return An AdaptiveConcurrencyLimiter for the "write" class.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter writeAdmissionLimiter(@Value("${app.admission.write.initial-limit:50}") int initialLimit,
+                                                            @Value("${app.admission.write.min-limit:5}") int minLimit,
+                                                            @Value("${app.admission.write.max-limit:400}") int maxLimit,
+                                                            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit, meterRegistry);
+    }
+
+    /**
+     * Configures the optional per-client rate limit.
+     *
+     * @return A TokenBucketRateLimiter instance.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.admission.rate-limit.enabled", havingValue = "true")
+    public TokenBucketRateLimiter clientRateLimiter(@Value("${app.admission.rate-limit.capacity:100}") int capacity,
+                                                    @Value("${app.admission.rate-limit.refill-per-second:50}") double refillPerSecond,
+                                                    @Value("${app.admission.rate-limit.maximum-clients:100000}") long maximumClients,
+                                                    @Value("${app.admission.rate-limit.idle-expiry:PT10M}") Duration idleExpiry,
+                                                    MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter(capacity, refillPerSecond, maximumClients, idleExpiry, meterRegistry);
+    }
+
+    /**
+     * Registers the admission filter right after the observation filter, so shed requests still show
+     * up in {@code http.server.requests} but are rejected before security and Spring MVC do any work.
+     *
+     * @return A FilterRegistrationBean for the AdmissionControlFilter.
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Qualifier("readAdmissionLimiter") AdaptiveConcurrencyLimiter readLimiter,
+            @Qualifier("writeAdmissionLimiter") AdaptiveConcurrencyLimiter writeLimiter,
+            ObjectProvider<TokenBucketRateLimiter> rateLimiter,
+            @Value("${app.admission.rate-limit.client-id-header:}") String clientIdHeader,
+            @Value("${app.admission.retry-after:PT1S}") Duration retryAfter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(new AdmissionControlFilter(
+                readLimiter, writeLimiter, rateLimiter.getIfAvailable(), clientIdHeader, retryAfter));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Exposes the limits and rejections as the {@code admission} actuator endpoint.
+     *
+     * @return An AdmissionControlEndpoint instance.
+     */
+    @Bean
+    public AdmissionControlEndpoint admissionControlEndpoint(
+            @Qualifier("readAdmissionLimiter") AdaptiveConcurrencyLimiter readLimiter,
+            @Qualifier("writeAdmissionLimiter") AdaptiveConcurrencyLimiter writeLimiter,
+            ObjectProvider<TokenBucketRateLimiter> rateLimiter) {
+        return new AdmissionControlEndpoint(List.of(readLimiter, writeLimiter), rateLimiter.getIfAvailable());
+    }
+}
@@ -0,0 +1,82 @@
+package com.jfd.worker.mgmt.config;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration class for request and background execution.
+ * <p>
+ * The execution mode is Spring Boot's {@code spring.threads.virtual.enabled}: when true, Tomcat
+ * request handling, the application task executor behind {@code @Async} and the sequence refill,
+ * the scheduler running the outbox relay and the Kafka listener containers all use virtual threads.
+ * Calls into MongoDB and Kafka are bounded by the limiters defined here in either mode, so the
+ * unbounded number of virtual threads cannot pile up inside the connection pools.
+ * Pinned virtual threads are reported by Micrometer's {@code jvm.threads.virtual.pinned}.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    /**
+     * Configures the limiter for MongoDB calls.
+     * Defaults to the driver's default connection pool size.
+     *
+     * @return A ConcurrencyLimiter for the "mongo" resource.
+     */
+    @Bean
+    public ConcurrencyLimiter mongoConcurrencyLimiter(@Value("${app.limits.mongo.max-concurrency:100}") int limit,
+                                                      @Value("${app.limits.mongo.acquire-timeout:PT2S}") Duration acquireTimeout,
+                                                      MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("mongo", limit, acquireTimeout, meterRegistry);
+    }
+
+    /**
+     * Configures the limiter for Kafka producer calls.
+     *
+     * @return A ConcurrencyLimiter for the "kafka" resource.
+     */
+    @Bean
+    public ConcurrencyLimiter kafkaConcurrencyLimiter(@Value("${app.limits.kafka.max-concurrency:200}") int limit,
+                                                      @Value("${app.limits.kafka.acquire-timeout:PT2S}") Duration acquireTimeout,
+                                                      MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter("kafka", limit, acquireTimeout, meterRegistry);
+    }
+
+    /**
+     * Task decorator applied by Spring Boot to the application task executor. Counts tasks that
+     * were submitted but have not started yet (the queue depth, also for the queue-less virtual
+     * thread executor) and tasks that are running, as {@code app.executor.queued} and
+     * {@code app.executor.active}.
+     *
+     * @param meterRegistry Registry for the executor gauges.
+     * @return A TaskDecorator instance.
+     */
+    @Bean
+    public TaskDecorator executorMetricsTaskDecorator(MeterRegistry meterRegistry) {
+        AtomicInteger queued = new AtomicInteger();
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("app.executor.queued", queued, AtomicInteger::get)
+                .description("Tasks submitted to the application executor and not started yet").register(meterRegistry);
+        Gauge.builder("app.executor.active", active, AtomicInteger::get)
+                .description("Tasks running on the application executor").register(meterRegistry);
+        return task -> {
+            queued.incrementAndGet();
+            return () -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.jfd.worker.mgmt.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for Kafka Consumer.
+ * Used for the internal topics this service listens to (e.g., cache invalidation).
+ */
+@EnableKafka
+@Configuration // Marks this class as a Spring configuration class
+public class KafkaConsumerConfig {
+
+    // Falls back to the producer's servers, the same cluster is used for both
+    @Value("${spring.kafka.consumer.bootstrap-servers:${spring.kafka.producer.bootstrap-servers}}")
+    private String bootstrapServers;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Configures the Kafka ConsumerFactory.
+     *
+     * @return A ConsumerFactory for String keys and values.
+     */
+    @Bean
+    public ConsumerFactory<String, String> consumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"); // Only events from now on matter
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    /**
+     * Configures the listener container factory used by {@code @KafkaListener} methods.
+     *
+     * @return A ConcurrentKafkaListenerContainerFactory instance.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setObservationEnabled(true); // Continues the sender's trace
+        if (virtualThreads) {
+            // Listener consumer loops follow the same execution mode as the request threads
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        return factory;
+    }
+}
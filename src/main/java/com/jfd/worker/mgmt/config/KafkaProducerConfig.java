@@ -1,6 +1,9 @@
 package com.jfd.worker.mgmt.config;
 
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -30,11 +33,8 @@ public class KafkaProducerConfig {
      */
     @Bean // Marks this method as a bean definition
     public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class); // Serializer for message keys
+        Map<String, Object> configProps = producerConfigs();
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class); // Serializer for message values
-        // You can add more producer-specific configurations here, e.g., acks, retries, batch size etc.
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -46,6 +46,56 @@ public class KafkaProducerConfig {
      */
     @Bean // Marks this method as a bean definition
     public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory());
+        template.setObservationEnabled(true); // Sent on request threads: propagates the request's trace in the headers
+        return template;
+    }
+
+    /**
+     * Configures the ProducerFactory for worker events.
+     * Values are already encoded when they are queued in the outbox, so they are sent as raw bytes.
+     *
+     * @return A ProducerFactory for byte array values.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> workerEventProducerFactory() {
+        Map<String, Object> configProps = producerConfigs();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Configures the KafkaTemplate used by the outbox relay for worker events.
+     *
+     * @return A KafkaTemplate instance for byte array values.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> workerEventKafkaTemplate() {
+        return new KafkaTemplate<>(workerEventProducerFactory());
+    }
+
+    /**
+     * Configures the serializer for worker event payloads.
+     * The JSON format keeps the payloads readable for consumers that do not use the binary codec yet.
+     *
+     * @param format The wire format, BINARY or JSON.
+     * @return A WorkerEventSerializer instance.
+     */
+    @Bean
+    public WorkerEventSerializer workerEventSerializer(@Value("${app.kafka.worker-event.format:JSON}") WorkerEventFormat format) {
+        return new WorkerEventSerializer(format);
+    }
+
+    private Map<String, Object> producerConfigs() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class); // Serializer for message keys
+        // Idempotent producer: retries cannot duplicate or reorder records within a partition
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE); // Bounded by delivery.timeout.ms
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5); // Highest value that keeps ordering
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5); // Lets outbox batches fill producer batches
+        return configProps;
     }
 }
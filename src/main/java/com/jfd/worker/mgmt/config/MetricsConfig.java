@@ -0,0 +1,43 @@
+package com.jfd.worker.mgmt.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Configuration class for the latency metrics exposed through the actuator.
+ * <p>
+ * Spring Boot already times HTTP requests ({@code http.server.requests}), every MongoDB command
+ * through the driver's command listener ({@code mongodb.driver.commands}) and every Kafka send from
+ * the call until the broker's acknowledgement, tagged with the result and exception
+ * ({@code spring.kafka.template}). This adds percentile histograms to those timers so per-stage
+ * p99 can be compared with the {@code worker.operation.stage} timers.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<String> HISTOGRAM_TIMERS = Set.of(
+            "http.server.requests", "mongodb.driver.commands", "spring.kafka.template");
+
+    /**
+     * Enables percentile histograms for the framework latency timers.
+     *
+     * @return A MeterFilter applied to every meter registry.
+     */
+    @Bean
+    public MeterFilter latencyHistogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!HISTOGRAM_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        };
+    }
+}
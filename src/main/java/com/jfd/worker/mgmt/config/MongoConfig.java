@@ -0,0 +1,51 @@
+package com.jfd.worker.mgmt.config;
+
+import com.jfd.worker.mgmt.metrics.MongoNodeTypeTagsProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Configuration class for MongoDB.
+ * Enables multi-document transactions (requires a replica set or sharded cluster) and tags the
+ * driver's command timers with the type of node that served each command.
+ */
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Configures the MongoTransactionManager.
+     * Used to write a worker and its outbox event atomically.
+     *
+     * @param databaseFactory The MongoDB database factory.
+     * @return A MongoTransactionManager instance.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    /**
+     * Configures the tags of the {@code mongodb.driver.commands} timers, adding the node type.
+     * Replaces Spring Boot's default tags provider.
+     *
+     * @return A MongoNodeTypeTagsProvider instance.
+     */
+    @Bean
+    public MongoNodeTypeTagsProvider mongoCommandTagsProvider() {
+        return new MongoNodeTypeTagsProvider();
+    }
+
+    /**
+     * Registers the tags provider for server role changes, so it knows which node is the primary.
+     *
+     * @param tagsProvider The node type tags provider.
+     * @return A MongoClientSettingsBuilderCustomizer adding the server listener.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoNodeTypeListener(MongoNodeTypeTagsProvider tagsProvider) {
+        return builder -> builder.applyToServerSettings(settings -> settings.addServerListener(tagsProvider));
+    }
+}
@@ -0,0 +1,88 @@
+package com.jfd.worker.mgmt.config;
+
+import com.jfd.worker.mgmt.model.idempotency.IdempotencyRecord;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * Configuration class for MongoDB indexes.
+ * Creates the indexes declared on the document classes at startup, since Spring Boot leaves
+ * automatic index creation switched off. This runs as the first application runner, so it has
+ * finished before the readiness state changes to accepting traffic (and before a snapshot command).
+ */
+@Slf4j
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor
+public class MongoIndexConfig implements ApplicationRunner {
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+    }
+
+    /**
+     * Backfills the GeoJSON location and the phone number key of workers stored before they were
+     * introduced, then ensures the declared indexes exist. An index that cannot be built (e.g. the
+     * unique phone number index while duplicates remain) is logged and skipped so startup continues.
+     */
+    public void ensureIndexes() {
+        // Pipeline update so the location is computed server-side from the existing fields
+        long backfilled = mongoOperations.updateMulti(
+                new Query(Criteria.where("location").exists(false)
+                        .and("latitude").ne(null)
+                        .and("longitude").ne(null)),
+                AggregationUpdate.update().set("location").toValue(
+                        new Document("type", "Point").append("coordinates", List.of("$longitude", "$latitude"))),
+                WorkerInformation.class).getModifiedCount();
+        if (backfilled > 0) {
+            log.info("Backfilled GeoJSON location for {} workers.", backfilled);
+        }
+
+        // Same normalization as WorkerPhoneNumberCallback: the digits of the phone number
+        Document digits = new Document("$reduce", new Document("input",
+                new Document("$regexFindAll", new Document("input", "$phoneNumber").append("regex", "[0-9]")))
+                .append("initialValue", "")
+                .append("in", new Document("$concat", List.of("$$value", "$$this.match"))));
+        long keyed = mongoOperations.updateMulti(
+                new Query(Criteria.where("phoneNumberKey").exists(false).and("phoneNumber").ne(null)),
+                AggregationUpdate.update().set("phoneNumberKey").toValue(digits),
+                WorkerInformation.class).getModifiedCount();
+        if (keyed > 0) {
+            log.info("Backfilled phone number key for {} workers.", keyed);
+        }
+
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoOperations.getConverter().getMappingContext());
+        for (Class<?> type : List.of(WorkerInformation.class, IdempotencyRecord.class)) {
+            IndexOperations indexOps = mongoOperations.indexOps(type);
+            String collection = mongoOperations.getCollectionName(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                try {
+                    indexOps.ensureIndex(index);
+                    log.info("Ensured index {} on collection '{}'.", index.getIndexKeys(), collection);
+                } catch (DataAccessException e) {
+                    log.error("Could not create index {} on collection '{}': {}", index.getIndexKeys(), collection, e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jfd.worker.mgmt.config;
+
+import com.jfd.worker.mgmt.event.WorkerChangeEvent;
+import com.jfd.worker.mgmt.event.WorkerEventDeserializer;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
+import com.jfd.worker.mgmt.model.config.DatabaseSequence;
+import com.jfd.worker.mgmt.model.idempotency.IdempotencyRecord;
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.outbox.OutboxLease;
+import com.jfd.worker.mgmt.model.registration.BulkRegistrationResult;
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionRequest;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionResult;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerPage;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerSummary;
+import com.jfd.worker.mgmt.model.registration.WorkerSummaryPage;
+import com.jfd.worker.mgmt.model.stats.WorkerCounts;
+import com.jfd.worker.mgmt.model.stats.WorkerHeatmap;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Configuration class for the runtime hints of an AOT-processed or native build.
+ * <p>
+ * Spring AOT infers most hints from the bean definitions, but not the reflection done by MongoDB
+ * mapping, Jackson and the Kafka clients on types that only appear in method bodies. The request
+ * and response types are registered for Jackson binding; the MongoDB documents additionally need
+ * their constructors, fields and accessors, because property accessors cannot be generated as
+ * bytecode in a native image. Kafka creates serializers configured by class reflectively.
+ * The hints are only read by {@code process-aot}; they cost nothing on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(RuntimeHintsConfig.WorkerMgmtRuntimeHints.class)
+@RegisterReflectionForBinding({WorkerInformation.class, WorkerPatch.class, WorkerPage.class, WorkerSummary.class,
+        WorkerSummaryPage.class, NearbyWorker.class, BulkRegistrationResult.class, StatusTransitionRequest.class,
+        StatusTransitionResult.class, WorkerCounts.class, WorkerHeatmap.class, WorkerChangeEvent.class})
+public class RuntimeHintsConfig {
+
+    static class WorkerMgmtRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final List<Class<?>> DOCUMENTS = List.of(WorkerInformation.class, WorkerSummary.class,
+                DatabaseSequence.class, OutboxEvent.class, OutboxLease.class, IdempotencyRecord.class);
+
+        private static final List<Class<?>> KAFKA_SERDES = List.of(StringSerializer.class, ByteArraySerializer.class,
+                StringDeserializer.class, WorkerEventSerializer.class, WorkerEventDeserializer.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            DOCUMENTS.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS));
+            KAFKA_SERDES.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+        }
+    }
+}
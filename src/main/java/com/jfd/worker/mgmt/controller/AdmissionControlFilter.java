@@ -0,0 +1,148 @@
+package com.jfd.worker.mgmt.controller;
+
+import com.jfd.worker.mgmt.concurrency.AdaptiveConcurrencyLimiter;
+import com.jfd.worker.mgmt.concurrency.TokenBucketRateLimiter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load in front of the worker API before it can tie up request threads.
+ * <p>
+ * GET requests are admitted by the read limiter, everything else by the write limiter, so a burst of
+ * registrations stuck behind slow MongoDB writes cannot starve lookups (and vice versa). A request
+ * over the limit is answered immediately with 503 and a Retry-After header. With a per-client rate
+ * limiter configured, a client over its rate gets 429 first. Clients are told apart by their remote
+ * address; a client ID header is only used when configured, since any caller can set it. Only {@code /api/**} is filtered; the
+ * actuator endpoints, including the health checks, are never shed.
+ * <p>
+ * The latency of each admitted request, up to the end of an asynchronous (streaming) response, feeds
+ * the limiter. The limit backs off when the application marks the request with
+ * {@link #BACKEND_SATURATED_ATTRIBUTE} (a MongoDB or Kafka call found no permit) or the asynchronous
+ * response times out. Other error responses, including a 503 meaning "not ready yet", leave it unchanged.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String BACKEND_SATURATED_ATTRIBUTE = AdmissionControlFilter.class.getName() + ".BACKEND_SATURATED";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String clientIdHeader;
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor for AdmissionControlFilter.
+     * @param readLimiter Limiter for GET requests.
+     * @param writeLimiter Limiter for all other requests.
+     * @param rateLimiter Per-client rate limiter, or null to disable rate limiting.
+     * @param clientIdHeader Header identifying the client, only to be set behind a gateway that sets it;
+     *                       null or blank to identify clients by their remote address.
+     * @param retryAfter Retry-After sent with 503 responses.
+     */
+    public AdmissionControlFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  TokenBucketRateLimiter rateLimiter, String clientIdHeader, Duration retryAfter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.rateLimiter = rateLimiter;
+        this.clientIdHeader = clientIdHeader == null || clientIdHeader.isBlank() ? null : clientIdHeader;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(clientId(request));
+            if (waitNanos > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS,
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)), "Rate limit exceeded");
+                return;
+            }
+        }
+
+        AdaptiveConcurrencyLimiter limiter = "GET".equals(request.getMethod()) ? readLimiter : writeLimiter;
+        Optional<AdaptiveConcurrencyLimiter.Permit> acquired = limiter.tryAcquire();
+        if (acquired.isEmpty()) {
+            log.debug("Shedding {} {}: {} limit of {} reached.", request.getMethod(), request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds, "Server is at capacity");
+            return;
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = acquired.get();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            permit.ignore();
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    release(permit, request, response.getStatus());
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    permit.dropped();
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    permit.ignore();
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                    // Permit stays held until the re-dispatched response completes
+                }
+            });
+        } else {
+            release(permit, request, response.getStatus());
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter.Permit permit, HttpServletRequest request, int status) {
+        if (Boolean.TRUE.equals(request.getAttribute(BACKEND_SATURATED_ATTRIBUTE))) {
+            permit.dropped();
+        } else if (status >= 500) {
+            permit.ignore();
+        } else {
+            permit.success();
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = clientIdHeader != null ? request.getHeader(clientIdHeader) : null;
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+}
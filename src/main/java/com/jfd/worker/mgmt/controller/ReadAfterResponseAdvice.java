@@ -0,0 +1,39 @@
+package com.jfd.worker.mgmt.controller;
+
+import com.jfd.worker.mgmt.repository.MongoReadRouting;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@value MongoReadRouting#READ_AFTER_HEADER} token to the responses of worker writes
+ * (registration, update, patch, status transitions). A client sending it back on its next reads sees
+ * its own write, even when those reads are otherwise routed to a MongoDB secondary.
+ * <p>
+ * The token is taken after the handler returned, i.e. after the write was acknowledged, and before
+ * the body is written, while headers can still be set.
+ */
+@ControllerAdvice(assignableTypes = WorkerController.class)
+public class ReadAfterResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            response.getHeaders().set(MongoReadRouting.READ_AFTER_HEADER, MongoReadRouting.readAfterToken());
+        }
+        return body;
+    }
+}
@@ -1,19 +1,54 @@
 package com.jfd.worker.mgmt.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimitExceededException;
+import com.jfd.worker.mgmt.model.registration.BulkRegistrationResult;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionRequest;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionResult;
 import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerPage;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.registration.WorkerSummaryPage;
+import com.jfd.worker.mgmt.repository.MongoReadRouting;
+import com.jfd.worker.mgmt.service.IdempotencyKeyConflictException;
+import com.jfd.worker.mgmt.service.IdempotencyService;
+import com.jfd.worker.mgmt.service.WorkerLocationService;
 import com.jfd.worker.mgmt.service.WorkerService;
+import com.jfd.worker.mgmt.service.WorkerStatusConflictException;
+import com.jfd.worker.mgmt.service.WorkerVersionConflictException;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * REST Controller for handling worker registration requests.
@@ -24,21 +59,122 @@ import java.util.Map;
 @RequestMapping("/api/worker") // Base path for all endpoints in this controller
 @AllArgsConstructor
 public class WorkerController {
+    private static final int BULK_BATCH_SIZE = 1000; // Items per sequence reservation / insertMany / producer flush
+
     private final WorkerService workerService;
+    private final WorkerLocationService workerLocationService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Handles POST requests for worker registration.
      *
+     * With an Idempotency-Key header, a retry with the same key and body returns the original
+     * response instead of registering the worker again. Server-assigned fields (ID, timestamp,
+     * version) are not compared, since the server fills them in afresh for every attempt.
+     *
      * @param workerInformation The WorkerInformation object received in the request body.
+     * @param idempotencyKey Optional client-chosen key identifying this registration.
      * @return A ResponseEntity containing the saved WorkerInformation and HTTP status 201 Created.
      */
     @PutMapping("/registration") // Maps POST requests to /api/registration
-    public ResponseEntity<WorkerInformation> registerWorker(@Valid @RequestBody WorkerInformation workerInformation) {
+    public ResponseEntity<WorkerInformation> registerWorker(@Valid @RequestBody WorkerInformation workerInformation,
+                                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Received worker registration request for ID: {}", workerInformation.getId());
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, workerInformation,
+                    WorkerInformation.SERVER_ASSIGNED_FIELDS, WorkerInformation.class, HttpStatus.CREATED,
+                    () -> workerService.registerWorker(workerInformation));
+        }
         WorkerInformation savedWorker = workerService.registerWorker(workerInformation);
         return new ResponseEntity<>(savedWorker, HttpStatus.CREATED); // Return 201 Created status
     }
 
+    /**
+     * Handles bulk worker registration from a JSON array.
+     * Every item is converted, validated and reported on its own, so one bad record (e.g. an unknown
+     * enum value or a field of the wrong type) does not fail the batch.
+     *
+     * @param workers The workers to register, as raw JSON so each item can be converted separately.
+     * @return A ResponseEntity with one result per item, in request order.
+     */
+    @PutMapping(value = "/registration/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkRegistrationResult>> registerWorkers(@RequestBody List<JsonNode> workers) {
+        log.info("Received bulk worker registration request with {} workers.", workers.size());
+        List<BulkRegistrationResult> results = new ArrayList<>(workers.size());
+        List<WorkerInformation> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(BULK_BATCH_SIZE);
+        for (int index = 0; index < workers.size(); index++) {
+            try {
+                batch.add(objectMapper.treeToValue(workers.get(index), WorkerInformation.class));
+                batchIndexes.add(index);
+            } catch (JsonProcessingException e) {
+                results.add(BulkRegistrationResult.invalid(index, Map.of("body", "Malformed worker: " + e.getOriginalMessage())));
+            }
+            if (batch.size() == BULK_BATCH_SIZE) {
+                registerBatch(batch, batchIndexes, results);
+            }
+        }
+        registerBatch(batch, batchIndexes, results);
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    /**
+     * Handles bulk worker registration from an NDJSON stream (one WorkerInformation per line).
+     * The body is read line by line and registered in batches, so the request is never buffered whole.
+     * A line that is not valid JSON is reported as invalid without affecting the others.
+     *
+     * @param body The raw NDJSON request body.
+     * @return A ResponseEntity with one result per non-blank line, in request order.
+     */
+    @PutMapping(value = "/registration/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkRegistrationResult>> registerWorkersNdjson(InputStream body) throws IOException {
+        log.info("Received NDJSON bulk worker registration request.");
+        List<BulkRegistrationResult> results = new ArrayList<>();
+        List<WorkerInformation> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(BULK_BATCH_SIZE);
+        int index = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, WorkerInformation.class));
+                    batchIndexes.add(index);
+                } catch (JsonProcessingException e) {
+                    results.add(BulkRegistrationResult.invalid(index, Map.of("body", "Malformed JSON: " + e.getOriginalMessage())));
+                }
+                index++;
+                if (batch.size() == BULK_BATCH_SIZE) {
+                    registerBatch(batch, batchIndexes, results);
+                }
+            }
+        }
+        registerBatch(batch, batchIndexes, results);
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        log.info("Processed NDJSON bulk worker registration request with {} workers.", index);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    private void registerBatch(List<WorkerInformation> batch, List<Integer> batchIndexes,
+                               List<BulkRegistrationResult> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (BulkRegistrationResult result : workerService.registerWorkers(batch)) {
+            result.setIndex(batchIndexes.get(result.getIndex()));
+            results.add(result);
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+
     /**
      * method to get worker information by ID.
      */
@@ -54,12 +190,103 @@ public class WorkerController {
     }
 
     /**
-     * method to get all worker information.
+     * method to get worker information page by page.
+     * Pages are ordered by ID; pass the returned continuation token to get the next one.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param continuation Continuation token from the previous page.
+     * @param limit Maximum number of workers per page (1 to 1000).
+     * @param readAfter Optional Read-After token from an earlier write response.
+     * @return A ResponseEntity containing the page and HTTP status 200 OK.
+     */
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE) // Maps GET requests to /api/worker/all
+    public ResponseEntity<WorkerPage> getAllWorkers(
+            @RequestParam(value = "status", required = false) WorkerStatus status,
+            @RequestParam(value = "ekycId", required = false) EkycId ekycId,
+            @RequestParam(value = "continuation", required = false) String continuation,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestHeader(value = MongoReadRouting.READ_AFTER_HEADER, required = false) Long readAfter) {
+        log.info("Fetching worker information page (status={}, ekycId={}, limit={}).", status, ekycId, limit);
+        WorkerPage page = workerService.getWorkers(status, ekycId, continuation, limit, readAfter);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * method to search workers by status, eKYC type or phone number.
+     * Returns summaries without the eKYC data and address, ordered by ID; pass the returned
+     * continuation token to get the next page.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param phoneNumber Optional phone number; matches on its digits.
+     * @param continuation Continuation token from the previous page.
+     * @param limit Maximum number of workers per page (1 to 1000).
+     * @param readAfter Optional Read-After token from an earlier write response.
+     * @return A ResponseEntity containing the page of summaries and HTTP status 200 OK.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<WorkerSummaryPage> searchWorkers(
+            @RequestParam(value = "status", required = false) WorkerStatus status,
+            @RequestParam(value = "ekycId", required = false) EkycId ekycId,
+            @RequestParam(value = "phoneNumber", required = false) String phoneNumber,
+            @RequestParam(value = "continuation", required = false) String continuation,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestHeader(value = MongoReadRouting.READ_AFTER_HEADER, required = false) Long readAfter) {
+        log.info("Searching workers (status={}, ekycId={}, byPhone={}, limit={}).", status, ekycId, phoneNumber != null, limit);
+        WorkerSummaryPage page = workerService.searchWorkers(status, ekycId, phoneNumber, continuation, limit, readAfter);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    /**
+     * method to stream all worker information as NDJSON (one worker per line).
+     * Workers are written as they are read from the MongoDB cursor, so memory use stays constant.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param readAfter Optional Read-After token from an earlier write response.
+     * @return A ResponseEntity streaming the workers with HTTP status 200 OK.
+     */
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllWorkers(
+            @RequestParam(value = "status", required = false) WorkerStatus status,
+            @RequestParam(value = "ekycId", required = false) EkycId ekycId,
+            @RequestHeader(value = MongoReadRouting.READ_AFTER_HEADER, required = false) Long readAfter) {
+        log.info("Streaming worker information (status={}, ekycId={}).", status, ekycId);
+        ObjectWriter writer = objectMapper.writerFor(WorkerInformation.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        StreamingResponseBody body = out -> {
+            try (Stream<WorkerInformation> workers = workerService.streamWorkers(status, ekycId, readAfter);
+                 SequenceWriter sequence = writer.writeValues(out)) {
+                Iterator<WorkerInformation> iterator = workers.iterator();
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * method to find the workers nearest to a location.
+     *
+     * @param latitude Latitude of the search point.
+     * @param longitude Longitude of the search point.
+     * @param k Maximum number of workers to return (1 to 1000).
+     * @param radiusKm Optional search radius in kilometres.
+     * @param onDutyOnly Whether to return only ON_DUTY workers.
+     * @return A ResponseEntity containing the workers ordered by distance and HTTP status 200 OK.
      */
-    @GetMapping("/all") // Maps GET requests to /api/worker/all
-    public ResponseEntity<List<WorkerInformation>> getAllWorkers() {
-        log.info("Fetching all worker information.");
-        List<WorkerInformation> workers = workerService.getAllWorkers();
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyWorker>> getNearbyWorkers(
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude,
+            @RequestParam(value = "k", defaultValue = "10") int k,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+            @RequestParam(value = "onDutyOnly", defaultValue = "true") boolean onDutyOnly) {
+        log.info("Fetching {} workers near ({}, {}) within {} km.", k, latitude, longitude, radiusKm);
+        List<NearbyWorker> workers = workerLocationService.findNearbyWorkers(latitude, longitude, k, radiusKm, onDutyOnly);
         return new ResponseEntity<>(workers, HttpStatus.OK);
     }
 
@@ -82,6 +309,35 @@ public class WorkerController {
         }
     }
 
+    /**
+     * Moves many workers to one status at once, e.g. at shift start or end.
+     * Workers are selected by ID or by filter; only allowed transitions are applied.
+     *
+     * @param request The target status and the workers to move.
+     * @return A ResponseEntity with the number of workers moved and HTTP status 200 OK.
+     */
+    @PutMapping("/status/bulk")
+    public ResponseEntity<StatusTransitionResult> transitionStatuses(@Valid @RequestBody StatusTransitionRequest request) {
+        log.info("Received bulk status transition to {}.", request.getTargetStatus());
+        return new ResponseEntity<>(workerService.transitionStatuses(request), HttpStatus.OK);
+    }
+
+    /**
+     * partially update worker information by ID.
+     * Only the fields present in the body are changed; with a version in the body the change is
+     * only applied if the worker is still at that version, otherwise 409 Conflict is returned.
+     * @param id The ID of the worker to update.
+     * @param patch The fields to change.
+     * @return A ResponseEntity containing the updated WorkerInformation and HTTP status 200 OK.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<WorkerInformation> patchWorkerById(
+            @PathVariable("id") Integer id,
+            @Valid @RequestBody WorkerPatch patch) {
+        log.info("Patching worker information for ID: {}", id);
+        return new ResponseEntity<>(workerService.patchWorker(id, patch), HttpStatus.OK);
+    }
+
 
 
     /**
@@ -100,6 +356,123 @@ public class WorkerController {
         return errors;
     }
 
+    /**
+     * Exception handler for invalid request parameters (e.g., a malformed continuation token).
+     * Returns the error message with HTTP status 400 Bad Request.
+     * @param ex The IllegalArgumentException thrown by the service layer.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Bad request: {}", ex.getMessage());
+        return error;
+    }
+
+    /**
+     * Exception handler for request parameters of the wrong type (e.g., a limit that is not a number
+     * or an unknown status). Without it the generic RuntimeException handler would answer 500.
+     * Returns HTTP status 400 Bad Request.
+     * @param ex The MethodArgumentTypeMismatchException thrown while binding the parameter.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid value for " + ex.getName() + ": " + ex.getValue());
+        log.warn("Bad request: invalid value for {}", ex.getName());
+        return error;
+    }
+
+    /**
+     * Handles WorkerVersionConflictException, thrown when an update was based on an outdated version.
+     * Returns HTTP status 409 Conflict; the client should re-read the worker and retry.
+     * @param ex The WorkerVersionConflictException that occurred.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(WorkerVersionConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleVersionConflict(WorkerVersionConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Version conflict: {}", ex.getMessage());
+        return error;
+    }
+
+    /**
+     * Handles WorkerStatusConflictException, thrown when an update asks for a status the worker cannot move to.
+     * Returns HTTP status 409 Conflict.
+     * @param ex The WorkerStatusConflictException that occurred.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(WorkerStatusConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleStatusConflict(WorkerStatusConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Status conflict: {}", ex.getMessage());
+        return error;
+    }
+
+    /**
+     * Handles IdempotencyKeyConflictException, thrown when an Idempotency-Key was used for a different
+     * request, or the original request with the key is still running.
+     * Returns HTTP status 422 Unprocessable Entity for a reused key and 409 Conflict while in progress.
+     * @param ex The IdempotencyKeyConflictException that occurred.
+     * @return A ResponseEntity containing the error message.
+     */
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Idempotency key conflict: {}", ex.getMessage());
+        return new ResponseEntity<>(error, ex.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles DuplicateKeyException, thrown by a unique index when a write would duplicate an existing
+     * worker. The index named in the MongoDB error decides the message: the phone number index means
+     * the phone number is already registered, any other (e.g. {@code _id}) is reported as such.
+     * Returns HTTP status 409 Conflict.
+     * @param ex The DuplicateKeyException that occurred.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDuplicateKey(DuplicateKeyException ex) {
+        Map<String, String> error = new HashMap<>();
+        String detail = ex.getMostSpecificCause().getMessage();
+        if (detail != null && detail.contains(WorkerInformation.PHONE_NUMBER_INDEX)) {
+            error.put("error", "A worker with this phone number is already registered");
+        } else {
+            error.put("error", "A worker with the same unique key already exists");
+        }
+        log.warn("Duplicate registration rejected: {}", ex.getMessage());
+        return error;
+    }
+
+    /**
+     * Handles ConcurrencyLimitExceededException, thrown when a MongoDB or Kafka call could not get a permit in time.
+     * Returns HTTP status 503 Service Unavailable so that clients back off and retry, and marks the request
+     * so that the {@link AdmissionControlFilter} lowers its limit as well.
+     * @param ex The ConcurrencyLimitExceededException that occurred.
+     * @param request The request that could not be served.
+     * @return A map containing the error message.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex,
+                                                              HttpServletRequest request) {
+        request.setAttribute(AdmissionControlFilter.BACKEND_SATURATED_ATTRIBUTE, true);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        log.warn("Backend saturated: {}", ex.getMessage());
+        return error;
+    }
+
     /**
      * General exception handler for any unhandled runtime exceptions.
      * Returns a generic error message with HTTP status 500 Internal Server Error.
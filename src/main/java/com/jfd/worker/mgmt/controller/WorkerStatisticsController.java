@@ -0,0 +1,58 @@
+package com.jfd.worker.mgmt.controller;
+
+import com.jfd.worker.mgmt.model.stats.WorkerCounts;
+import com.jfd.worker.mgmt.model.stats.WorkerHeatmap;
+import com.jfd.worker.mgmt.service.WorkerStatistics;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller serving worker statistics for dashboards from memory.
+ */
+@Tag(description = "worker-mgmt", name = "Worker Management")
+@RestController
+@RequestMapping("/api/worker/stats")
+@AllArgsConstructor
+public class WorkerStatisticsController {
+
+    private final WorkerStatistics workerStatistics;
+
+    /**
+     * method to get the number of workers, in total and by status and eKYC type.
+     *
+     * @return A ResponseEntity containing the counts and HTTP status 200 OK, 404 Not Found if the
+     *         statistics are disabled, or 503 Service Unavailable until they have been seeded.
+     */
+    @GetMapping
+    public ResponseEntity<WorkerCounts> getCounts() {
+        if (!workerStatistics.isEnabled()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!workerStatistics.isReady()) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(workerStatistics.counts(), HttpStatus.OK);
+    }
+
+    /**
+     * method to get the worker density per grid cell.
+     *
+     * @return A ResponseEntity containing the non-empty cells and HTTP status 200 OK, 404 Not Found if
+     *         the statistics are disabled, or 503 Service Unavailable until they have been seeded.
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<WorkerHeatmap> getHeatmap() {
+        if (!workerStatistics.isEnabled()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!workerStatistics.isReady()) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(workerStatistics.heatmap(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,27 @@
+package com.jfd.worker.mgmt.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Field-level change of a worker, published on the worker update topic.
+ * Carries only the changed fields with their new values, plus the version the change produced,
+ * so consumers can apply changes in order and skip ones they have already seen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerChangeEvent {
+
+    public static final String CONTENT_TYPE = "application/vnd.jfd.worker-change.v1+json";
+
+    private Integer workerId;
+    private Long version;
+    private Map<String, Object> changes; // Field name to new value
+    private Instant changedAt;
+
+}
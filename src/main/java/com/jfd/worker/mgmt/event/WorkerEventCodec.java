@@ -0,0 +1,198 @@
+package com.jfd.worker.mgmt.event;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of {@link WorkerInformation} events.
+ * <p>
+ * Layout (version 1): magic byte, version byte, presence bitmap (varint), then the present fields
+ * in declaration order: id (zigzag varint), name, phone number (length-prefixed UTF-8), age (zigzag
+ * varint), eKYC type (ordinal varint), eKYC data, address, latitude, longitude (raw big-endian
+ * doubles), status (ordinal varint), timestamp (UTC epoch seconds as zigzag varint, then nanos)
+ * and version (zigzag varint).
+ * <p>
+ * Evolution rules: adding a field keeps the version byte; the field gets the next presence bit and
+ * is appended at the end, and {@link #decode} ignores presence bits and trailing bytes it does not
+ * know. Enum constants may only be appended, never reordered. The version byte is raised only for a
+ * change older readers cannot skip, and {@link #decode} rejects any version byte above {@value #VERSION}.
+ */
+public final class WorkerEventCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.jfd.worker-event.v1+binary";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    static final byte MAGIC = (byte) 0xB7; // Never the first byte of a JSON document
+    static final byte VERSION = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_PHONE_NUMBER = 1 << 2;
+    private static final int HAS_EKYC_ID = 1 << 3;
+    private static final int HAS_EKYC_DATA = 1 << 4;
+    private static final int HAS_ADDRESS = 1 << 5;
+    private static final int HAS_LATITUDE = 1 << 6;
+    private static final int HAS_LONGITUDE = 1 << 7;
+    private static final int HAS_STATUS = 1 << 8;
+    private static final int HAS_TIMESTAMP = 1 << 9;
+    private static final int HAS_VERSION = 1 << 10;
+
+    private static final EkycId[] EKYC_IDS = EkycId.values();
+    private static final WorkerStatus[] STATUSES = WorkerStatus.values();
+
+    private WorkerEventCodec() {
+    }
+
+    /**
+     * Creates the ObjectMapper for the JSON format, configured like the original event publisher
+     * (JavaTimeModule, ISO-8601 dates) and tolerant of fields added later.
+     */
+    public static ObjectMapper jsonMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return objectMapper;
+    }
+
+    /**
+     * @return Whether the payload is in the binary format (as opposed to JSON).
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encodes a worker into the buffer, after whatever the buffer already holds.
+     */
+    public static void encode(WorkerInformation worker, EventBuffer out) {
+        int presence = 0;
+        if (worker.getId() != null) presence |= HAS_ID;
+        if (worker.getName() != null) presence |= HAS_NAME;
+        if (worker.getPhoneNumber() != null) presence |= HAS_PHONE_NUMBER;
+        if (worker.getEkycId() != null) presence |= HAS_EKYC_ID;
+        if (worker.getEkycData() != null) presence |= HAS_EKYC_DATA;
+        if (worker.getAddress() != null) presence |= HAS_ADDRESS;
+        if (worker.getLatitude() != null) presence |= HAS_LATITUDE;
+        if (worker.getLongitude() != null) presence |= HAS_LONGITUDE;
+        if (worker.getStatus() != null) presence |= HAS_STATUS;
+        if (worker.getTimestamp() != null) presence |= HAS_TIMESTAMP;
+        if (worker.getVersion() != null) presence |= HAS_VERSION;
+
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(presence);
+        if ((presence & HAS_ID) != 0) out.writeZigZag(worker.getId());
+        if ((presence & HAS_NAME) != 0) out.writeString(worker.getName());
+        if ((presence & HAS_PHONE_NUMBER) != 0) out.writeString(worker.getPhoneNumber());
+        out.writeZigZag(worker.getAge());
+        if ((presence & HAS_EKYC_ID) != 0) out.writeVarLong(worker.getEkycId().ordinal());
+        if ((presence & HAS_EKYC_DATA) != 0) out.writeString(worker.getEkycData());
+        if ((presence & HAS_ADDRESS) != 0) out.writeString(worker.getAddress());
+        if ((presence & HAS_LATITUDE) != 0) out.writeDouble(worker.getLatitude());
+        if ((presence & HAS_LONGITUDE) != 0) out.writeDouble(worker.getLongitude());
+        if ((presence & HAS_STATUS) != 0) out.writeVarLong(worker.getStatus().ordinal());
+        if ((presence & HAS_TIMESTAMP) != 0) {
+            out.writeZigZag(worker.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(worker.getTimestamp().getNano());
+        }
+        if ((presence & HAS_VERSION) != 0) out.writeZigZag(worker.getVersion());
+    }
+
+    /**
+     * Decodes a worker from a binary payload.
+     * @throws SerializationException if the payload is not a supported binary worker event.
+     */
+    public static WorkerInformation decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary worker event");
+        }
+        if (data[1] > VERSION || data[1] < 1) {
+            throw new SerializationException("Unsupported worker event version " + data[1]);
+        }
+        try {
+            Reader in = new Reader(data, 2);
+            long presence = in.readVarLong();
+            WorkerInformation worker = new WorkerInformation();
+            if ((presence & HAS_ID) != 0) worker.setId((int) in.readZigZag());
+            if ((presence & HAS_NAME) != 0) worker.setName(in.readString());
+            if ((presence & HAS_PHONE_NUMBER) != 0) worker.setPhoneNumber(in.readString());
+            worker.setAge((int) in.readZigZag());
+            if ((presence & HAS_EKYC_ID) != 0) worker.setEkycId(EKYC_IDS[(int) in.readVarLong()]);
+            if ((presence & HAS_EKYC_DATA) != 0) worker.setEkycData(in.readString());
+            if ((presence & HAS_ADDRESS) != 0) worker.setAddress(in.readString());
+            if ((presence & HAS_LATITUDE) != 0) worker.setLatitude(in.readDouble());
+            if ((presence & HAS_LONGITUDE) != 0) worker.setLongitude(in.readDouble());
+            if ((presence & HAS_STATUS) != 0) worker.setStatus(STATUSES[(int) in.readVarLong()]);
+            if ((presence & HAS_TIMESTAMP) != 0) {
+                long epochSecond = in.readZigZag();
+                int nano = (int) in.readVarLong();
+                worker.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+            } else {
+                worker.setTimestamp(null);
+            }
+            if ((presence & HAS_VERSION) != 0) worker.setVersion(in.readZigZag());
+            return worker; // Bytes after the known fields belong to newer writers and are skipped
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated or corrupt worker event", e);
+        }
+    }
+
+    /**
+     * Cursor over an encoded payload.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in worker event");
+        }
+
+        private long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (data[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new SerializationException("Truncated string in worker event");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
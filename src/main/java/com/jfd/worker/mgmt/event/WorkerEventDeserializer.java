@@ -0,0 +1,32 @@
+package com.jfd.worker.mgmt.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer for worker events. Accepts both the binary format of {@link WorkerEventCodec}
+ * and JSON, told apart by the first byte, so consumers can switch before the producers do.
+ */
+public class WorkerEventDeserializer implements Deserializer<WorkerInformation> {
+
+    private final ObjectMapper objectMapper = WorkerEventCodec.jsonMapper();
+
+    @Override
+    public WorkerInformation deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (WorkerEventCodec.isBinary(data)) {
+            return WorkerEventCodec.decode(data);
+        }
+        try {
+            return objectMapper.readValue(data, WorkerInformation.class);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize worker information from JSON", e);
+        }
+    }
+}
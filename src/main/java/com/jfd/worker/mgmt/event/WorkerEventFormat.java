@@ -0,0 +1,11 @@
+package com.jfd.worker.mgmt.event;
+
+/**
+ * Wire formats for worker events on Kafka.
+ */
+public enum WorkerEventFormat {
+    /** Compact schema-versioned encoding, see {@link WorkerEventCodec}. */
+    BINARY,
+    /** Jackson JSON, as produced before the binary codec existed; kept for older consumers. */
+    JSON
+}
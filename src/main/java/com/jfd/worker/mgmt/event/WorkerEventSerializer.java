@@ -0,0 +1,72 @@
+package com.jfd.worker.mgmt.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kafka serializer for worker events, writing either the binary format of {@link WorkerEventCodec}
+ * or, for consumers that have not moved to it yet, the original JSON.
+ * <p>
+ * Binary events are encoded into a per-thread buffer that is reused across calls, so the only
+ * allocation per event is the exact-size array handed to Kafka. The format can be set through the
+ * constructor or the {@value #FORMAT_CONFIG} producer property.
+ */
+public class WorkerEventSerializer implements Serializer<WorkerInformation> {
+
+    public static final String FORMAT_CONFIG = "worker.event.format";
+
+    private final ObjectMapper objectMapper = WorkerEventCodec.jsonMapper();
+    private final ThreadLocal<EventBuffer> buffers = ThreadLocal.withInitial(() -> new EventBuffer(512));
+    private WorkerEventFormat format;
+
+    public WorkerEventSerializer() {
+        this(WorkerEventFormat.BINARY);
+    }
+
+    public WorkerEventSerializer(WorkerEventFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(FORMAT_CONFIG);
+        if (configured != null) {
+            format = WorkerEventFormat.valueOf(configured.toString().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public WorkerEventFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return The content type of the payloads this serializer writes, for the record header.
+     */
+    public String contentType() {
+        return format == WorkerEventFormat.BINARY ? WorkerEventCodec.CONTENT_TYPE : WorkerEventCodec.JSON_CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] serialize(String topic, WorkerInformation data) {
+        if (data == null) {
+            return null;
+        }
+        if (format == WorkerEventFormat.JSON) {
+            try {
+                return objectMapper.writeValueAsBytes(data);
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Failed to serialize worker information to JSON", e);
+            }
+        }
+        EventBuffer buffer = buffers.get();
+        buffer.reset();
+        WorkerEventCodec.encode(data, buffer);
+        return buffer.toByteArray();
+    }
+}
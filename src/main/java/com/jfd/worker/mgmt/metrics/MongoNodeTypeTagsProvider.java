@@ -0,0 +1,52 @@
+package com.jfd.worker.mgmt.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ServerDescription;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.ServerDescriptionChangedEvent;
+import com.mongodb.event.ServerListener;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds the type of the node that ran a command ({@code node.type}: primary, secondary, standalone,
+ * mongos or unknown) to the {@code mongodb.driver.commands} timers, so read latency on secondaries
+ * can be told apart from the primary's.
+ * <p>
+ * The driver reports every change of a server's role to the registered {@link ServerListener}, so
+ * the type is a map lookup per command and follows elections and failovers.
+ */
+public class MongoNodeTypeTagsProvider implements MongoCommandTagsProvider, ServerListener {
+
+    private final MongoCommandTagsProvider delegate = new DefaultMongoCommandTagsProvider();
+    private final Map<ServerAddress, String> nodeTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public void serverDescriptionChanged(ServerDescriptionChangedEvent event) {
+        ServerDescription description = event.getNewDescription();
+        nodeTypes.put(description.getAddress(), switch (description.getType()) {
+            case REPLICA_SET_PRIMARY -> "primary";
+            case REPLICA_SET_SECONDARY -> "secondary";
+            case STANDALONE -> "standalone";
+            case SHARD_ROUTER -> "mongos";
+            default -> "unknown";
+        });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        delegate.commandStarted(event);
+    }
+
+    @Override
+    public Iterable<Tag> commandTags(CommandEvent event) {
+        String nodeType = nodeTypes.getOrDefault(event.getConnectionDescription().getServerAddress(), "unknown");
+        return Tags.of(delegate.commandTags(event)).and("node.type", nodeType);
+    }
+}
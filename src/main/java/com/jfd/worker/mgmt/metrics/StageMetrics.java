@@ -0,0 +1,74 @@
+package com.jfd.worker.mgmt.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of worker operations (ID allocation, MongoDB writes, cache invalidation, ...)
+ * as the {@value #STAGE_TIMER} timer, tagged with the operation, the stage and whether the stage
+ * succeeded. The timers publish percentile histograms, so p99 per stage can be aggregated across
+ * instances. Together with {@code http.server.requests}, {@code mongodb.driver.commands} and
+ * {@code spring.kafka.template} this shows which step a slow request spent its time in.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String STAGE_TIMER = "worker.operation.stage";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs one stage of an operation and records its duration.
+     *
+     * @param operation The operation, e.g. "register".
+     * @param stage The stage within the operation, e.g. "sequence".
+     * @param action The stage itself.
+     * @return The result of the stage.
+     */
+    public <T> T record(String operation, String stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(operation, stage, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs one stage of an operation that has no result and records its duration.
+     *
+     * @param operation The operation, e.g. "delete".
+     * @param stage The stage within the operation, e.g. "grid".
+     * @param action The stage itself.
+     */
+    public void run(String operation, String stage, Runnable action) {
+        record(operation, stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String operation, String stage, String outcome) {
+        return timers.computeIfAbsent(operation + '/' + stage + '/' + outcome, key -> Timer.builder(STAGE_TIMER)
+                .description("Duration of one stage of a worker operation")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
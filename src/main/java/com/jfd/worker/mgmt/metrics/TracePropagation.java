@@ -0,0 +1,56 @@
+package com.jfd.worker.mgmt.metrics;
+
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Captures the current trace context as propagation headers (W3C {@code traceparent} by default).
+ * <p>
+ * Outbox events are sent to Kafka later by the relay, on a thread that no longer has the request's
+ * trace, so the headers are captured when the event is written and copied onto the Kafka record by
+ * the relay. Without a tracer (tracing disabled) no headers are captured.
+ */
+@Component
+public class TracePropagation {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    @Autowired
+    public TracePropagation(ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this(tracer.getIfAvailable(), propagator.getIfAvailable());
+    }
+
+    /**
+     * Constructor for TracePropagation.
+     * @param tracer The tracer, or null when tracing is disabled.
+     * @param propagator The propagator writing the headers, or null when tracing is disabled.
+     */
+    public TracePropagation(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @return The propagation headers of the current span; empty if there is none.
+     */
+    public Map<String, String> currentHeaders() {
+        if (tracer == null || propagator == null) {
+            return Map.of();
+        }
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context == null) {
+            return Map.of();
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        propagator.inject(context, headers, Map::put);
+        return headers;
+    }
+}
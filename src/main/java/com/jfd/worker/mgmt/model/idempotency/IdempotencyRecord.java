@@ -0,0 +1,31 @@
+package com.jfd.worker.mgmt.model.idempotency;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a request sent with an {@code Idempotency-Key} header.
+ * Inserted when the first request with the key starts and completed with its response, so that
+ * retries with the same key get the stored response instead of repeating the operation.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id // The client's Idempotency-Key
+    private String id;
+    private String requestHash; // SHA-256 of the request body; a different body with the same key is rejected
+    private boolean completed;
+    private Integer status; // HTTP status of the stored response
+    private byte[] body; // Stored response body, JSON
+    private Instant startedAt; // When the request currently holding the key started
+    @Indexed(name = "createdAt_ttl", expireAfter = "24h") // MongoDB deletes the record after a day
+    private Instant createdAt;
+
+}
@@ -0,0 +1,31 @@
+package com.jfd.worker.mgmt.model.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * An event waiting to be relayed to Kafka, written in the same MongoDB transaction
+ * as the change it describes (transactional outbox).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "worker_outbox")
+public class OutboxEvent {
+
+    @Id // ObjectId, ascending in insertion order; also sent as the event ID header for de-duplication
+    private String id;
+    private String topic;
+    private String key; // Kafka record key, the worker ID
+    private byte[] payload; // Already encoded by the WorkerEventSerializer
+    private String contentType; // Sent as the content-type header
+    private Instant createdAt;
+    private Map<String, String> traceHeaders; // Trace context of the writing request, sent as Kafka headers
+
+}
@@ -0,0 +1,21 @@
+package com.jfd.worker.mgmt.model.outbox;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Lease held by the single instance currently allowed to relay the outbox.
+ */
+@Data
+@Document(collection = "outbox_leases")
+public class OutboxLease {
+
+    @Id // Name of the relay (e.g., "worker_outbox")
+    private String id;
+    private String owner; // Instance ID of the current holder
+    private Instant expiresAt;
+
+}
@@ -0,0 +1,45 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of one item of a bulk worker registration request.
+ * The index refers to the position of the item in the request body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegistrationResult {
+
+    private int index;
+    private Integer id; // Generated worker ID, only set when the worker was created
+    private Status status;
+    private Map<String, String> errors; // Field name to error message, as for single registrations
+
+    public static BulkRegistrationResult created(int index, Integer id) {
+        return new BulkRegistrationResult(index, id, Status.CREATED, null);
+    }
+
+    public static BulkRegistrationResult invalid(int index, Map<String, String> errors) {
+        return new BulkRegistrationResult(index, null, Status.INVALID, errors);
+    }
+
+    public static BulkRegistrationResult failed(int index, String message) {
+        return new BulkRegistrationResult(index, null, Status.FAILED, Map.of("error", message));
+    }
+
+    /**
+     * Status of a single bulk registration item.
+     */
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+}
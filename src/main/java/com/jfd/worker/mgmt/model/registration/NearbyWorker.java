@@ -0,0 +1,18 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A worker returned by a proximity search, with its great-circle distance from the search point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyWorker {
+
+    private WorkerInformation worker;
+    private double distanceKm;
+
+}
@@ -0,0 +1,25 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request to move many workers to one status, selected either by ID or by filter.
+ * Workers whose current status does not allow the transition are left unchanged.
+ */
+@Data
+public class StatusTransitionRequest {
+
+    @NotNull(message = "Target status cannot be null")
+    private WorkerStatus targetStatus;
+
+    @Size(max = 100_000, message = "At most 100000 IDs per request")
+    private List<Integer> ids; // Select these workers; when absent, the filter below selects them
+
+    private WorkerStatus status; // Filter: current status
+    private EkycId ekycId; // Filter: eKYC type
+
+}
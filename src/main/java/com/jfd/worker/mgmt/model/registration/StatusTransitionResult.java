@@ -0,0 +1,24 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status transition.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatusTransitionResult {
+
+    private WorkerStatus targetStatus;
+    private int transitioned;
+    // Only for requests by ID: IDs left unchanged (unknown, already in the target status, or transition not allowed)
+    private List<Integer> skippedIds;
+
+}
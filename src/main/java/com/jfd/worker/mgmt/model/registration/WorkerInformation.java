@@ -1,23 +1,42 @@
 package com.jfd.worker.mgmt.model.registration;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.ToString;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Represents the WorkerInformation entity, mapped to a MongoDB document.
  * Includes validation annotations for incoming REST requests.
+ * The compound indexes serve the status/eKYC filters of the listing and search endpoints,
+ * each ending in {@code _id} so results come back in ID order without an in-memory sort.
  */
 @Data
 @ToString
 @Document(collection = "workers") // Specifies the MongoDB collection name
+@CompoundIndexes({
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "ekycId_id", def = "{'ekycId': 1, '_id': 1}"),
+        @CompoundIndex(name = "status_ekycId_id", def = "{'status': 1, 'ekycId': 1, '_id': 1}")
+})
 public class WorkerInformation {
 
+    public static final String PHONE_NUMBER_INDEX = "phoneNumberKey_unique";
+    // Filled in by the server when the client leaves them out, so a retried registration may differ in them
+    public static final Set<String> SERVER_ASSIGNED_FIELDS = Set.of("id", "timestamp", "version");
+
     @Id // Marks this field as the primary key in MongoDB
     //@NotNull(message = "ID cannot be null")
     //@Min(value = 1, message = "ID must be a positive integer")
@@ -33,6 +52,10 @@ public class WorkerInformation {
     @Pattern(regexp = "^\\+?[0-9. ()-]{7,25}$", message = "Invalid phone number format")
     private String phoneNumber;
 
+    @JsonIgnore
+    @Indexed(name = PHONE_NUMBER_INDEX, unique = true, sparse = true)
+    private String phoneNumberKey; // Digits of the phone number, set before every save; one worker per number
+
     @NotNull(message = "EKYC ID type cannot be null")
     private EkycId ekycId;
 
@@ -52,11 +75,17 @@ public class WorkerInformation {
     @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
     private Double longitude;
 
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location; // Derived from longitude/latitude before every save, backs the 2dsphere index
+
     @NotNull(message = "Status cannot be null")
     private WorkerStatus status;
 
     //@NotNull(message = "Timestamp cannot be null")
     //@ReadOnlyProperty
-    private final LocalDateTime timestamp = LocalDateTime.now(); // Automatically set to current time if not provided
+    private LocalDateTime timestamp = LocalDateTime.now(); // Automatically set to current time if not provided
+
+    private Long version; // Incremented by every update; send it back to update only the version you read
 
 }
@@ -0,0 +1,23 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of workers from a keyset-paginated listing.
+ * Pass {@code continuation} back to fetch the next page; it is absent on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkerPage {
+
+    private List<WorkerInformation> workers;
+    private String continuation; // Opaque token, only meaningful to this service
+
+}
@@ -0,0 +1,46 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * Partial update of a worker: only the fields that are set are changed.
+ * Set fields are validated like the corresponding {@link WorkerInformation} fields.
+ * Latitude and longitude can only be changed together.
+ */
+@Data
+public class WorkerPatch {
+
+    @Pattern(regexp = ".*\\S.*", message = "Name cannot be blank")
+    private String name;
+
+    @Min(value = 18, message = "Age must be at least 18")
+    private Integer age;
+
+    @Pattern(regexp = "^\\+?[0-9. ()-]{7,25}$", message = "Invalid phone number format")
+    private String phoneNumber;
+
+    private EkycId ekycId;
+
+    @Pattern(regexp = ".*\\S.*", message = "EKYC data cannot be blank")
+    private String ekycData;
+
+    @Pattern(regexp = ".*\\S.*", message = "Address cannot be blank")
+    private String address;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    private WorkerStatus status;
+
+    private Long version; // Optional: only apply the change if the worker still has this version
+
+}
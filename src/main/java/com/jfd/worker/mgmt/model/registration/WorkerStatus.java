@@ -1,11 +1,43 @@
 package com.jfd.worker.mgmt.model.registration;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enum for WorkerStatus types.
+ * Also defines which status transitions are allowed; both single worker updates and bulk status
+ * changes only move workers whose current status is one of the target's allowed sources.
  */
 public enum WorkerStatus {
     REGISTERED,
     ON_DUTY,
     REGULAR,
-    UNREGISTERED
-}
\ No newline at end of file
+    UNREGISTERED;
+
+    /**
+     * @param target The status to move to.
+     * @return Whether a worker in this status may be moved to the target status.
+     */
+    public boolean canTransitionTo(WorkerStatus target) {
+        return switch (this) {
+            case REGISTERED -> target == ON_DUTY || target == REGULAR || target == UNREGISTERED;
+            case ON_DUTY -> target == REGULAR || target == UNREGISTERED; // Shift end
+            case REGULAR -> target == ON_DUTY || target == UNREGISTERED; // Shift start
+            case UNREGISTERED -> target == REGISTERED;
+        };
+    }
+
+    /**
+     * @param target The status to move to.
+     * @return The statuses a worker may be moved to the target status from.
+     */
+    public static Set<WorkerStatus> allowedSources(WorkerStatus target) {
+        Set<WorkerStatus> sources = EnumSet.noneOf(WorkerStatus.class);
+        for (WorkerStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+}
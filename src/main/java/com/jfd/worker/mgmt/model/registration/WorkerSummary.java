@@ -0,0 +1,23 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight view of a worker returned by the search endpoint.
+ * Only these fields are read from MongoDB; eKYC data, address and timestamps are left out.
+ */
+@Data
+@NoArgsConstructor
+public class WorkerSummary {
+
+    private Integer id;
+    private String name;
+    private String phoneNumber;
+    private EkycId ekycId;
+    private Double latitude;
+    private Double longitude;
+    private WorkerStatus status;
+    private Long version;
+
+}
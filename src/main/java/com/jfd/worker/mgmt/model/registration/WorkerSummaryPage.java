@@ -0,0 +1,23 @@
+package com.jfd.worker.mgmt.model.registration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of worker summaries from a search.
+ * Pass {@code continuation} back to fetch the next page; it is absent on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkerSummaryPage {
+
+    private List<WorkerSummary> workers;
+    private String continuation; // Opaque token, only meaningful to this service
+
+}
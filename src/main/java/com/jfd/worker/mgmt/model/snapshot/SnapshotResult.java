@@ -0,0 +1,28 @@
+package com.jfd.worker.mgmt.model.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a workers snapshot export or import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotResult {
+
+    private String file;
+    private long documents; // Exported or inserted in this run
+    private long skipped; // Import only: already present (duplicate _id)
+    private long bytes; // Compressed bytes written or read in this run
+    private long durationMillis;
+    private Integer lastId; // Highest _id exported or imported
+
+    /**
+     * @return Documents per second over the whole run.
+     */
+    public double getDocumentsPerSecond() {
+        return durationMillis == 0 ? documents : documents * 1000.0 / durationMillis;
+    }
+}
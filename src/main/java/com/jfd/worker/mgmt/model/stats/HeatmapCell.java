@@ -0,0 +1,19 @@
+package com.jfd.worker.mgmt.model.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cell of the worker heatmap, identified by its south-west corner.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapCell {
+
+    private double latitude;
+    private double longitude;
+    private long workers;
+
+}
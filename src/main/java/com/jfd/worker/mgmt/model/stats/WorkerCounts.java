@@ -0,0 +1,25 @@
+package com.jfd.worker.mgmt.model.stats;
+
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Number of registered workers, in total and by status and eKYC type.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerCounts {
+
+    private long total;
+    private Map<WorkerStatus, Long> byStatus;
+    private Map<EkycId, Long> byEkycId;
+    private Instant reconciledAt; // When the counts were last recomputed from MongoDB; null until seeded
+
+}
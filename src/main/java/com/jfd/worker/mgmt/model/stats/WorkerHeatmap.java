@@ -0,0 +1,22 @@
+package com.jfd.worker.mgmt.model.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Worker density on a fixed latitude/longitude grid. Only cells holding workers are listed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerHeatmap {
+
+    private double cellSizeDegrees;
+    private List<HeatmapCell> cells;
+    private Instant reconciledAt; // When the grid was last recomputed from MongoDB; null until seeded
+
+}
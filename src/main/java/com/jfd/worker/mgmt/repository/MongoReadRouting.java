@@ -0,0 +1,146 @@
+package com.jfd.worker.mgmt.repository;
+
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the MongoOperations a read runs on, so that list, search and stream queries can be served
+ * by secondaries instead of competing with the registration writes on the primary.
+ * <p>
+ * Routed reads use {@code secondaryPreferred} with {@code app.mongo.read-routing.max-staleness}: the
+ * driver skips secondaries estimated to lag further behind than that, and falls back to the primary
+ * when no secondary qualifies. Lookups by ID keep reading the primary, because they fill the worker
+ * cache, and a stale read there would outlive the invalidation that preceded it.
+ * <p>
+ * Write responses carry a {@value #READ_AFTER_HEADER} token (the time of the write, in epoch
+ * milliseconds). A read sending the token back is served by the primary while the write may not have
+ * reached every eligible secondary yet, i.e. for {@code read-your-writes-window} after it, which
+ * gives a client read-your-writes without server-side session state. Tokens more than
+ * {@link #MAX_CLOCK_SKEW} in the future are ignored, so a forged one cannot pin a client's reads to
+ * the primary. Every decision is counted as
+ * {@code mongo.read.routing}, tagged with the operation, the target and the reason.
+ */
+@Slf4j
+@Component
+public class MongoReadRouting {
+
+    public static final String READ_AFTER_HEADER = "Read-After";
+    private static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90); // Server-side minimum for maxStalenessSeconds
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(5); // Between the instances issuing and reading tokens
+
+    private final boolean enabled;
+    private final Set<String> operations;
+    private final long readYourWritesWindowMillis;
+    private final MongoOperations primary;
+    private final MongoOperations secondary;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for MongoReadRouting.
+     * @param enabled Whether reads are routed at all; without routing every read goes to the primary.
+     * @param maxStaleness Maximum estimated replication lag of a secondary serving routed reads (at least 90 seconds).
+     * @param readYourWritesWindow How long after a write its token keeps reads on the primary.
+     * @param operations The operations routed to secondaries (list, search, stream).
+     * @param mongoOperations MongoDB operations on the primary.
+     * @param databaseFactory Factory the secondary operations share with the primary ones.
+     * @param meterRegistry Registry for the routing counters.
+     */
+    @Autowired
+    public MongoReadRouting(@Value("${app.mongo.read-routing.enabled:true}") boolean enabled,
+                            @Value("${app.mongo.read-routing.max-staleness:PT90S}") Duration maxStaleness,
+                            @Value("${app.mongo.read-routing.read-your-writes-window:PT100S}") Duration readYourWritesWindow,
+                            @Value("${app.mongo.read-routing.operations:list,search,stream}") Set<String> operations,
+                            MongoOperations mongoOperations, MongoDatabaseFactory databaseFactory,
+                            MeterRegistry meterRegistry) {
+        this(enabled, readYourWritesWindow, operations, mongoOperations,
+                secondaryPreferred(mongoOperations, databaseFactory, maxStaleness), meterRegistry);
+        log.info("Read routing {}: {} on secondaryPreferred (max staleness {}s), read-your-writes window {}.",
+                enabled ? "enabled" : "disabled", operations, maxStaleness.toSeconds(), readYourWritesWindow);
+    }
+
+    /**
+     * Constructor for MongoReadRouting with explicit secondary operations, e.g. a replica set stand-in.
+     * @param enabled Whether reads are routed at all.
+     * @param readYourWritesWindow How long after a write its token keeps reads on the primary.
+     * @param operations The operations routed to secondaries.
+     * @param primary MongoDB operations on the primary.
+     * @param secondary MongoDB operations preferring secondaries.
+     * @param meterRegistry Registry for the routing counters.
+     */
+    public MongoReadRouting(boolean enabled, Duration readYourWritesWindow, Set<String> operations,
+                            MongoOperations primary, MongoOperations secondary, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.operations = Set.copyOf(operations);
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+        this.primary = primary;
+        this.secondary = secondary;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Chooses where a read runs.
+     * @param operation The read operation, e.g. "list" or "search".
+     * @param readAfter The client's {@value #READ_AFTER_HEADER} token, or null.
+     * @return The MongoOperations to run the read on.
+     */
+    public MongoOperations forRead(String operation, Long readAfter) {
+        String reason;
+        if (!enabled) {
+            reason = "disabled";
+        } else if (!operations.contains(operation)) {
+            reason = "not-routed";
+        } else if (readAfter != null && isRecent(readAfter)) {
+            reason = "read-your-writes";
+        } else {
+            count(operation, "secondary", "routed");
+            return secondary;
+        }
+        count(operation, "primary", reason);
+        return primary;
+    }
+
+    private boolean isRecent(long readAfter) {
+        long age = System.currentTimeMillis() - readAfter;
+        return age < readYourWritesWindowMillis && age >= -MAX_CLOCK_SKEW.toMillis();
+    }
+
+    /**
+     * @return A token for the {@value #READ_AFTER_HEADER} header of a write response.
+     */
+    public static String readAfterToken() {
+        return String.valueOf(Instant.now().toEpochMilli());
+    }
+
+    private void count(String operation, String target, String reason) {
+        Counter.builder("mongo.read.routing")
+                .tag("operation", operation)
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Reads by the node type they were routed to")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static MongoOperations secondaryPreferred(MongoOperations mongoOperations, MongoDatabaseFactory databaseFactory,
+                                                      Duration maxStaleness) {
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("app.mongo.read-routing.max-staleness must be at least " + MIN_MAX_STALENESS);
+        }
+        MongoTemplate template = new MongoTemplate(databaseFactory, mongoOperations.getConverter());
+        template.setReadPreference(ReadPreference.secondaryPreferred(maxStaleness.toSeconds(), TimeUnit.SECONDS));
+        return template;
+    }
+}
@@ -0,0 +1,25 @@
+package com.jfd.worker.mgmt.repository;
+
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the GeoJSON {@code location} of a worker in sync with its latitude/longitude
+ * whenever the document is written through the mapping layer (save, insert and bulk insert).
+ */
+@Component
+public class WorkerLocationCallback implements BeforeConvertCallback<WorkerInformation> {
+
+    @Override
+    public WorkerInformation onBeforeConvert(WorkerInformation worker, String collection) {
+        if (worker.getLatitude() != null && worker.getLongitude() != null) {
+            // GeoJSON order is [longitude, latitude]
+            worker.setLocation(new GeoJsonPoint(worker.getLongitude(), worker.getLatitude()));
+        } else {
+            worker.setLocation(null);
+        }
+        return worker;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jfd.worker.mgmt.repository;
+
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code phoneNumberKey} of a worker in sync with its phone number whenever the document
+ * is written through the mapping layer (save, insert and bulk insert). The key ignores formatting,
+ * so "+91 98765 43210" and "+91-9876543210" are the same number for the unique index.
+ */
+@Component
+public class WorkerPhoneNumberCallback implements BeforeConvertCallback<WorkerInformation> {
+
+    @Override
+    public WorkerInformation onBeforeConvert(WorkerInformation worker, String collection) {
+        worker.setPhoneNumberKey(phoneNumberKey(worker.getPhoneNumber()));
+        return worker;
+    }
+
+    /**
+     * @param phoneNumber A phone number in any accepted format, or null.
+     * @return Its digits, or null if it has none.
+     */
+    public static String phoneNumberKey(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() ? null : digits.toString();
+    }
+}
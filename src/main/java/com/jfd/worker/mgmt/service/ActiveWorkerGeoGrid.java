@@ -0,0 +1,260 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory grid of on-duty workers bucketed into fixed latitude/longitude cells, so the
+ * nearest-worker query can be answered without a MongoDB round-trip.
+ * <p>
+ * A query scans rings of cells around the search point and stops as soon as no cell further out
+ * can hold a worker closer than the current k-th result. The grid only serves queries once it has
+ * been seeded ({@link #markReady()}); until then, when disabled, or when a query would need more
+ * than {@code max-rings} rings (sparse areas far from any worker), callers go to MongoDB.
+ * <p>
+ * The grid is local to the instance: after seeding it only sees the writes made through this
+ * instance's {@link WorkerService}, so changes made on other replicas are missing until restart.
+ * It is therefore off by default and meant for single-instance deployments.
+ */
+@Slf4j
+@Component
+public class ActiveWorkerGeoGrid {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final boolean enabled;
+    private final double cellSizeDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final int maxRings;
+    private final ConcurrentMap<Long, ConcurrentMap<Integer, WorkerInformation>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Long> cellByWorker = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Constructor for ActiveWorkerGeoGrid.
+     * @param enabled Whether the grid is maintained and used at all.
+     * @param cellSizeDegrees Edge length of a grid cell in degrees.
+     * @param maxRings Number of rings a query may scan before giving up.
+     */
+    public ActiveWorkerGeoGrid(@Value("${app.worker.geo-grid.enabled:false}") boolean enabled,
+                               @Value("${app.worker.geo-grid.cell-size-degrees:0.1}") double cellSizeDegrees,
+                               @Value("${app.worker.geo-grid.max-rings:200}") int maxRings) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("app.worker.geo-grid.cell-size-degrees must be in (0, 90]");
+        }
+        this.enabled = enabled;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+        this.maxRings = maxRings;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Whether the grid is enabled and seeded, i.e. may answer queries.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        log.info("Active worker geo grid ready with {} on-duty workers in {} cells.", size(), cells.size());
+    }
+
+    public int size() {
+        return cellByWorker.size();
+    }
+
+    /**
+     * Adds, moves or removes a worker depending on its current status and position.
+     * Only on-duty workers with coordinates are kept.
+     *
+     * @param worker The latest state of the worker.
+     */
+    public void update(WorkerInformation worker) {
+        if (!enabled || worker.getId() == null) {
+            return;
+        }
+        if (worker.getStatus() != WorkerStatus.ON_DUTY || worker.getLatitude() == null || worker.getLongitude() == null) {
+            remove(worker.getId());
+            return;
+        }
+        long key = cellKey(latIndex(worker.getLatitude()), lonIndex(worker.getLongitude()));
+        // compute() serialises concurrent updates of the same worker
+        cellByWorker.compute(worker.getId(), (id, previousKey) -> {
+            if (previousKey != null && previousKey != key) {
+                removeFromCell(previousKey, id);
+            }
+            cells.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(id, worker);
+            return key;
+        });
+    }
+
+    /**
+     * Removes a worker from the grid.
+     * @param id The ID of the worker.
+     */
+    public void remove(Integer id) {
+        if (!enabled) {
+            return;
+        }
+        cellByWorker.computeIfPresent(id, (workerId, key) -> {
+            removeFromCell(key, workerId);
+            return null;
+        });
+    }
+
+    /**
+     * Finds the on-duty workers nearest to a point.
+     *
+     * @param latitude Latitude of the search point.
+     * @param longitude Longitude of the search point.
+     * @param k Maximum number of workers to return.
+     * @param radiusKm Optional maximum distance in kilometres.
+     * @return Up to k workers ordered by increasing distance, or null if the answer was not
+     *         settled within the ring limit.
+     */
+    public List<NearbyWorker> nearest(double latitude, double longitude, int k, Double radiusKm) {
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        PriorityQueue<NearbyWorker> best =
+                new PriorityQueue<>(k, Comparator.comparingDouble(NearbyWorker::getDistanceKm).reversed());
+        int occupiedCells = cells.size();
+        int scannedOccupied = 0;
+        int maxRing = Math.max(latCells, lonCells);
+        boolean settled = false;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (scannedOccupied >= occupiedCells) {
+                settled = true; // Every occupied cell has been looked at
+                break;
+            }
+            // Once a ring spans every longitude, its side columns were already scanned by earlier
+            // rings and only the new top and bottom rows remain
+            boolean wrapped = 2 * ring + 1 > lonCells;
+            double bound = wrapped ? EARTH_RADIUS_KM * Math.toRadians((ring - 1) * cellSizeDegrees)
+                    : ringLowerBoundKm(latitude, ring);
+            if ((radiusKm != null && bound > radiusKm) || (best.size() == k && bound >= best.peek().getDistanceKm())) {
+                settled = true; // Nothing further out can make it into the result
+                break;
+            }
+            if (ring == maxRings) {
+                break;
+            }
+            int minDLat = Math.max(-ring, -centerLat);
+            int maxDLat = Math.min(ring, latCells - 1 - centerLat);
+            for (int dLat = minDLat; dLat <= maxDLat; dLat++) {
+                int latIdx = centerLat + dLat;
+                if (Math.abs(dLat) == ring) {
+                    int span = Math.min(2 * ring + 1, lonCells);
+                    for (int j = 0; j < span; j++) {
+                        scannedOccupied += scan(best, k, radiusKm, latIdx, centerLon - ring + j, latitude, longitude);
+                    }
+                } else if (!wrapped) {
+                    scannedOccupied += scan(best, k, radiusKm, latIdx, centerLon - ring, latitude, longitude);
+                    scannedOccupied += scan(best, k, radiusKm, latIdx, centerLon + ring, latitude, longitude);
+                }
+            }
+        }
+
+        if (!settled) {
+            return null;
+        }
+        List<NearbyWorker> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyWorker::getDistanceKm));
+        return result;
+    }
+
+    /**
+     * Offers every worker of one cell to the result heap.
+     * @return 1 if the cell was occupied, 0 otherwise.
+     */
+    private int scan(PriorityQueue<NearbyWorker> best, int k, Double radiusKm, int latIdx, int lonIdx,
+                     double latitude, double longitude) {
+        Map<Integer, WorkerInformation> cell = cells.get(cellKey(latIdx, Math.floorMod(lonIdx, lonCells)));
+        if (cell == null) {
+            return 0;
+        }
+        for (WorkerInformation worker : cell.values()) {
+            offer(best, k, radiusKm, worker, latitude, longitude);
+        }
+        return 1;
+    }
+
+    private static void offer(PriorityQueue<NearbyWorker> best, int k, Double radiusKm,
+                              WorkerInformation worker, double latitude, double longitude) {
+        Double workerLat = worker.getLatitude();
+        Double workerLon = worker.getLongitude();
+        if (workerLat == null || workerLon == null) {
+            return;
+        }
+        double distance = haversineKm(latitude, longitude, workerLat, workerLon);
+        if (radiusKm != null && distance > radiusKm) {
+            return;
+        }
+        if (best.size() < k) {
+            best.add(new NearbyWorker(worker, distance));
+        } else if (distance < best.peek().getDistanceKm()) {
+            best.poll();
+            best.add(new NearbyWorker(worker, distance));
+        }
+    }
+
+    /**
+     * Lower bound of the distance from the search point to any point in a cell of the given ring.
+     * Such a cell is at least {@code ring - 1} cells away in latitude or longitude; the longitude
+     * case is the weaker one and shrinks with the highest latitude the ring can reach.
+     */
+    private double ringLowerBoundKm(double latitude, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double separation = Math.toRadians(Math.min(180, (ring - 1) * cellSizeDegrees));
+        double maxAbsLat = Math.toRadians(Math.min(90, Math.abs(latitude) + (ring + 1) * cellSizeDegrees));
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.cos(maxAbsLat) * Math.sin(separation / 2)));
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(long key, Integer id) {
+        cells.computeIfPresent(key, (k, cell) -> {
+            cell.remove(id);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSizeDegrees)));
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), lonCells);
+    }
+
+    private long cellKey(int latIdx, int lonIdx) {
+        return (long) latIdx * lonCells + lonIdx;
+    }
+}
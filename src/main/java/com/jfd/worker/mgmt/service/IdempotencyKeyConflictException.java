@@ -0,0 +1,22 @@
+package com.jfd.worker.mgmt.service;
+
+/**
+ * Thrown when an {@code Idempotency-Key} cannot be honoured: it was used before with a different
+ * request body, or the request holding it did not finish in time.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyKeyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    /**
+     * @return Whether the original request is still running, as opposed to the key being reused.
+     */
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
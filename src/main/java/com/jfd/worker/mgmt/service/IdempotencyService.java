@@ -0,0 +1,333 @@
+package com.jfd.worker.mgmt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.idempotency.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes an operation safe to retry under an {@code Idempotency-Key}.
+ * <p>
+ * The first request with a key inserts an in-progress {@link IdempotencyRecord} (the unique
+ * {@code _id} decides the owner across instances), runs the operation and stores its response.
+ * A later request with the same key and body gets the stored response back without running the
+ * operation again. Completed responses are also kept in a bounded local cache, so most replays
+ * never reach MongoDB. Duplicates arriving while the first request is still running wait for it:
+ * on the same instance through a shared future, across instances by polling the record.
+ * <p>
+ * If the owning instance dies mid-request, its record is taken over once the lease has expired.
+ * Records are removed by a TTL index a day after they were created.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 500;
+
+    private final MongoOperations mongoOperations;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrencyLimiter mongoLimiter;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+    private final Duration lease;
+    private final Duration waitTimeout;
+
+    /**
+     * Constructor for IdempotencyService.
+     * @param maximumSize Maximum number of completed responses kept in memory.
+     * @param cacheTtl Time a completed response is kept in memory.
+     * @param lease Time after which a key held by an unfinished request may be taken over.
+     * @param waitTimeout Maximum time a duplicate waits for the original request to finish.
+     * @param mongoOperations MongoDB operations for the idempotency records.
+     * @param objectMapper Serializes request fingerprints and stored responses.
+     * @param meterRegistry Registry for the idempotency meters.
+     * @param mongoLimiter Bounds concurrent MongoDB calls.
+     */
+    public IdempotencyService(@Value("${app.idempotency.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${app.idempotency.cache.ttl:PT10M}") Duration cacheTtl,
+                              @Value("${app.idempotency.lease:PT1M}") Duration lease,
+                              @Value("${app.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+                              MongoOperations mongoOperations,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter) {
+        this.mongoOperations = mongoOperations;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.mongoLimiter = mongoLimiter;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency");
+    }
+
+    /**
+     * Runs the operation once per key, or returns the response of the request that already ran it.
+     *
+     * @param key The client's Idempotency-Key.
+     * @param request The request body, fingerprinted to detect a key reused for a different request.
+     * @param responseType Type of the response body, used to read a stored response back.
+     * @param status HTTP status of a successful response.
+     * @param action The operation; it is not run when the response is replayed.
+     * @return The response; replays carry the {@value #REPLAYED_HEADER} header.
+     * @throws IdempotencyKeyConflictException if the key was used for a different request, or the
+     *         original request did not finish within the wait timeout.
+     */
+    public <T> ResponseEntity<T> execute(String key, Object request, Class<T> responseType, HttpStatus status,
+                                         Supplier<T> action) {
+        return execute(key, request, Set.of(), responseType, status, action);
+    }
+
+    /**
+     * Runs the operation once per key, or returns the response of the request that already ran it.
+     * The given top-level fields are left out of the request fingerprint. Use this for fields the
+     * server fills in when the client omits them (such as a creation timestamp), which would
+     * otherwise differ between a request and its retry.
+     *
+     * @param key The client's Idempotency-Key.
+     * @param request The request body, fingerprinted to detect a key reused for a different request.
+     * @param unfingerprinted Top-level request fields that are not part of the fingerprint.
+     * @param responseType Type of the response body, used to read a stored response back.
+     * @param status HTTP status of a successful response.
+     * @param action The operation; it is not run when the response is replayed.
+     * @return The response; replays carry the {@value #REPLAYED_HEADER} header.
+     * @throws IdempotencyKeyConflictException if the key was used for a different request, or the
+     *         original request did not finish within the wait timeout.
+     */
+    public <T> ResponseEntity<T> execute(String key, Object request, Set<String> unfingerprinted, Class<T> responseType,
+                                         HttpStatus status, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request, unfingerprinted);
+
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            count("replayed");
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Same key already running on this instance; share its outcome instead of racing it
+            count("coalesced");
+            return replay(await(running, key), requestHash, responseType);
+        }
+
+        boolean owner = false;
+        try {
+            IdempotencyRecord stored = acquire(key, requestHash);
+            if (stored != null) {
+                completed.put(key, stored);
+                mine.complete(stored);
+                count("replayed");
+                return replay(stored, requestHash, responseType);
+            }
+            owner = true;
+            T result = action.get();
+            IdempotencyRecord record = complete(key, requestHash, status, result);
+            completed.put(key, record);
+            mine.complete(record);
+            count("executed");
+            return ResponseEntity.status(status).body(result);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            if (owner) {
+                release(key);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Takes the key, waiting while another instance holds it.
+     * @return The completed record if the key was already used, or null if this request now holds it.
+     */
+    private IdempotencyRecord acquire(String key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pollMillis = 10;
+        while (true) {
+            if (tryInsert(key, requestHash)) {
+                return null;
+            }
+            IdempotencyRecord existing = mongoLimiter.call(() -> mongoOperations.findById(key, IdempotencyRecord.class));
+            if (existing == null) {
+                continue; // Released or expired in the meantime
+            }
+            if (!requestHash.equals(existing.getRequestHash())) {
+                count("conflict");
+                throw new IdempotencyKeyConflictException(
+                        "Idempotency-Key " + key + " was already used for a different request", false);
+            }
+            if (existing.isCompleted()) {
+                return existing;
+            }
+            if (existing.getStartedAt() != null && existing.getStartedAt().isBefore(Instant.now().minus(lease))
+                    && takeOver(key, existing.getStartedAt())) {
+                log.warn("Took over idempotency key {} abandoned since {}.", key, existing.getStartedAt());
+                return null;
+            }
+            if (System.nanoTime() > deadline) {
+                count("conflict");
+                throw new IdempotencyKeyConflictException(
+                        "A request with Idempotency-Key " + key + " is still in progress", true);
+            }
+            sleep(pollMillis);
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private boolean tryInsert(String key, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(key);
+        record.setRequestHash(requestHash);
+        record.setStartedAt(Instant.now());
+        record.setCreatedAt(record.getStartedAt());
+        try {
+            mongoLimiter.run(() -> mongoOperations.insert(record));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean takeOver(String key, Instant startedAt) {
+        // Only one instance can move startedAt away from the value it read
+        Query query = new Query(Criteria.where("id").is(key).and("completed").is(false).and("startedAt").is(startedAt));
+        return mongoLimiter.call(() -> mongoOperations.findAndModify(query, new Update().set("startedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class)) != null;
+    }
+
+    private IdempotencyRecord complete(String key, String requestHash, HttpStatus status, Object result) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(key);
+        record.setRequestHash(requestHash);
+        record.setCompleted(true);
+        record.setStatus(status.value());
+        try {
+            record.setBody(objectMapper.writeValueAsBytes(result));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize response for idempotency key " + key, e);
+        }
+        try {
+            mongoLimiter.run(() -> mongoOperations.updateFirst(new Query(Criteria.where("id").is(key)),
+                    new Update().set("completed", true).set("status", record.getStatus()).set("body", record.getBody()),
+                    IdempotencyRecord.class));
+        } catch (RuntimeException e) {
+            // The operation itself succeeded; only replays from other instances are affected until the lease expires
+            log.error("Failed to store response for idempotency key {}: {}", key, e.getMessage());
+        }
+        return record;
+    }
+
+    private void release(String key) {
+        // The operation failed, so a retry with the same key should run it again
+        try {
+            mongoLimiter.run(() -> mongoOperations.remove(
+                    new Query(Criteria.where("id").is(key).and("completed").is(false)), IdempotencyRecord.class));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running, String key) {
+        try {
+            return running.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            count("conflict");
+            throw new IdempotencyKeyConflictException("A request with Idempotency-Key " + key + " is still in progress", true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted waiting for Idempotency-Key " + key, true);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!requestHash.equals(record.getRequestHash())) {
+            count("conflict");
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency-Key " + record.getId() + " was already used for a different request", false);
+        }
+        try {
+            return ResponseEntity.status(record.getStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(record.getBody(), responseType));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read stored response for idempotency key " + record.getId(), e);
+        }
+    }
+
+    private String fingerprint(Object request, Set<String> unfingerprinted) {
+        try {
+            JsonNode tree = objectMapper.valueToTree(request);
+            if (tree instanceof ObjectNode fields) {
+                fields.remove(unfingerprinted);
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(tree)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to fingerprint request", e);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("worker.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("Interrupted waiting for an idempotency key", true);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.outbox.OutboxLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background relay that drains the worker outbox to Kafka in batches.
+ * <p>
+ * Only the instance holding the relay lease sends, so events are read in insertion order by a single
+ * producer. A batch is sent one event per key at a time, pipelined across keys, and the events Kafka
+ * acknowledged are then deleted from the outbox. Once an event of a key fails, the later events of
+ * that key are not sent at all, so they follow it in order when it is retried. The send timeout is
+ * shorter than the lease and the lease is renewed between rounds, so a second relay cannot take over
+ * while this one is still waiting for acknowledgements. Payloads are stored already encoded and sent
+ * as raw bytes. Delivery is at-least-once: the outbox ID travels in the {@value #EVENT_ID_HEADER}
+ * header so consumers can drop duplicates.
+ * <p>
+ * The trace headers captured when an event was written are copied onto its Kafka record, so the
+ * trace continues from the original request. The delay from writing an event to its acknowledgement
+ * is recorded as {@code worker.outbox.relay.lag}, failed sends as {@code worker.outbox.relay.failures}.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    static final String EVENT_ID_HEADER = "event-id";
+    static final String CONTENT_TYPE_HEADER = "content-type";
+    private static final String LEASE_ID = "worker_outbox";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final MongoOperations mongoOperations;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final Duration sendTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Timer relayLag;
+
+    /**
+     * Constructor for OutboxRelay.
+     * @param mongoOperations Mongo operations for reading and deleting outbox events.
+     * @param kafkaTemplate Kafka template for sending the events.
+     * @param enabled Whether this instance takes part in relaying.
+     * @param batchSize Number of events read and sent per batch.
+     * @param leaseDuration How long the relay lease lasts without renewal.
+     * @param sendTimeout How long to wait for the acknowledgements of one round; shorter than the lease.
+     * @param meterRegistry Registry for the relay lag and failure meters.
+     */
+    public OutboxRelay(MongoOperations mongoOperations, KafkaTemplate<String, byte[]> kafkaTemplate,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.relay.lease-duration:PT10S}") Duration leaseDuration,
+                       @Value("${app.outbox.relay.send-timeout:PT5S}") Duration sendTimeout,
+                       MeterRegistry meterRegistry) {
+        if (!sendTimeout.isPositive() || sendTimeout.compareTo(leaseDuration) >= 0) {
+            throw new IllegalArgumentException(
+                    "app.outbox.relay.send-timeout must be positive and shorter than app.outbox.relay.lease-duration");
+        }
+        this.mongoOperations = mongoOperations;
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.sendTimeout = sendTimeout;
+        this.meterRegistry = meterRegistry;
+        this.relayLag = Timer.builder("worker.outbox.relay.lag")
+                .description("Time from writing an outbox event to its acknowledgement by Kafka")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox while this instance holds the lease. Full batches are followed immediately
+     * by the next one; otherwise the relay waits for the next poll.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            while (acquireLease() && relayBatch() == batchSize) {
+                log.debug("Outbox batch was full, relaying the next one immediately.");
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends one batch of outbox events and removes the acknowledged ones.
+     * The batch is sent in rounds holding the oldest unsent event of every key, so the events of a
+     * key are sent one at a time while different keys are still pipelined. The lease is renewed
+     * before every round after the first; if it was lost, the rest of the batch is left to the new owner.
+     * @return The number of events read.
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = mongoOperations.find(
+                new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize), OutboxEvent.class);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Deque<OutboxEvent>> pending = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            pending.computeIfAbsent(event.getKey(), key -> new ArrayDeque<>()).add(event);
+        }
+        List<String> delivered = new ArrayList<>(events.size());
+        boolean firstRound = true;
+        while (!pending.isEmpty()) {
+            if (!firstRound && !acquireLease()) {
+                log.warn("Lost the outbox relay lease during a batch; leaving {} keys to the new owner.", pending.size());
+                break;
+            }
+            firstRound = false;
+            if (!relayRound(pending, delivered)) {
+                break;
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            mongoOperations.remove(new Query(Criteria.where("id").in(delivered)), OutboxEvent.class);
+        }
+        log.info("Relayed {} of {} outbox events to Kafka.", delivered.size(), events.size());
+        return events.size();
+    }
+
+    /**
+     * Sends the next event of every pending key and waits up to the send timeout for the acknowledgements.
+     * Acknowledged events are moved to {@code delivered}; a key whose event failed is dropped from
+     * {@code pending}, so its later events stay in the outbox and are re-sent after it.
+     * @return False if the thread was interrupted.
+     */
+    private boolean relayRound(Map<String, Deque<OutboxEvent>> pending, List<String> delivered) {
+        List<OutboxEvent> round = new ArrayList<>(pending.size());
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(pending.size());
+        for (Deque<OutboxEvent> queue : pending.values()) {
+            round.add(queue.peek());
+            sends.add(kafkaTemplate.send(record(queue.peek())));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < round.size(); i++) {
+            OutboxEvent event = round.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(event.getId());
+                if (event.getCreatedAt() != null) {
+                    relayLag.record(Duration.between(event.getCreatedAt(), Instant.now()));
+                }
+                Deque<OutboxEvent> queue = pending.get(event.getKey());
+                queue.poll();
+                if (queue.isEmpty()) {
+                    pending.remove(event.getKey());
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                pending.remove(event.getKey()); // Keep its later events so they are re-sent after it in order
+                Counter.builder("worker.outbox.relay.failures")
+                        .description("Outbox events Kafka did not acknowledge; they are retried")
+                        .tag("topic", event.getTopic())
+                        .tag("exception", (e instanceof ExecutionException && e.getCause() != null
+                                ? e.getCause() : e).getClass().getSimpleName())
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Failed to relay outbox event {} (key {}) to topic '{}': {}",
+                        event.getId(), event.getKey(), event.getTopic(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ProducerRecord<String, byte[]> record(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getKey(), event.getPayload());
+        record.headers().add(EVENT_ID_HEADER, event.getId().getBytes(StandardCharsets.UTF_8));
+        if (event.getContentType() != null) {
+            record.headers().add(CONTENT_TYPE_HEADER, event.getContentType().getBytes(StandardCharsets.UTF_8));
+        }
+        if (event.getTraceHeaders() != null) {
+            for (Map.Entry<String, String> header : event.getTraceHeaders().entrySet()) {
+                record.headers().add(header.getKey(), header.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Acquires or renews the relay lease.
+     * @return Whether this instance holds the lease.
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(instanceId), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", instanceId).set("expiresAt", now.plus(leaseDuration));
+        try {
+            mongoOperations.upsert(query, update, OutboxLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // Held by another instance: the upsert tried to insert a second lease document
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.jfd.worker.mgmt.service;
 
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
 import com.jfd.worker.mgmt.model.config.DatabaseSequence;
-import lombok.AllArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
@@ -11,15 +13,57 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service to generate auto-incrementing integer sequences for MongoDB documents.
+ * <p>
+ * With {@code app.sequence.block-size} greater than 1 the service works in hi/lo mode: each
+ * instance atomically leases a block of IDs from the sequence document and hands them out from
+ * a local counter, refilling the next block in the background before the current one runs out.
+ * The stored counter only ever moves forward, so IDs stay unique across instances and restarts;
+ * IDs left unused in a block when an instance stops are skipped.
  */
+@Slf4j
 @Service
-@AllArgsConstructor
 public class SequenceGeneratorService {
 
     private final MongoOperations mongoOperations;
+    private final Executor refillExecutor;
+    private final ConcurrencyLimiter mongoLimiter;
+    private final int blockSize;
+    private final int refillThreshold;
+    private final ConcurrentMap<String, BlockAllocator> allocators = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for SequenceGeneratorService.
+     * @param mongoOperations Mongo operations used to lease sequence values.
+     * @param refillExecutor Executor used to lease the next block in the background.
+     * @param blockSize Number of IDs leased per round-trip; 1 keeps one round-trip per ID.
+     * @param refillRatio Fraction of the block left when the background refill starts.
+     * @param mongoLimiter Bounds concurrent MongoDB calls.
+     */
+    public SequenceGeneratorService(MongoOperations mongoOperations,
+                                    @Qualifier("applicationTaskExecutor") Executor refillExecutor,
+                                    @Value("${app.sequence.block-size:1}") int blockSize,
+                                    @Value("${app.sequence.refill-ratio:0.25}") double refillRatio,
+                                    @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("app.sequence.block-size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.refillExecutor = refillExecutor;
+        this.mongoLimiter = mongoLimiter;
+        this.blockSize = blockSize;
+        this.refillThreshold = Math.min(blockSize - 1, Math.max(0, (int) (blockSize * refillRatio)));
+    }
 
     /**
      * Generates the next sequence number for a given sequence name.
@@ -29,16 +73,131 @@ public class SequenceGeneratorService {
      * @return The next sequence number.
      */
     public int generateSequence(String seqName) {
+        if (blockSize == 1) {
+            return Math.toIntExact(lease(seqName, 1).end);
+        }
+        return Math.toIntExact(allocators.computeIfAbsent(seqName, BlockAllocator::new).next());
+    }
+
+    /**
+     * Reserves {@code count} consecutive sequence numbers in a single round-trip,
+     * independent of the locally leased block.
+     *
+     * @param seqName The name of the sequence (e.g., "workers_sequence").
+     * @param count The number of sequence numbers to reserve.
+     * @return The first reserved sequence number; the range is {@code [first, first + count)}.
+     */
+    public int generateSequences(String seqName, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
+        }
+        return Math.toIntExact(lease(seqName, count).end - count + 1);
+    }
+
+    /**
+     * Atomically reserves {@code size} consecutive values of the sequence in a single round-trip.
+     *
+     * @param seqName The name of the sequence.
+     * @param size The number of values to reserve.
+     * @return The reserved range.
+     */
+    private Block lease(String seqName, int size) {
         Query query = new Query(Criteria.where("id").is(seqName));
-        Update update = new Update().inc("seq", 1); // Increment the 'seq' field by 1
+        Update update = new Update().inc("seq", size); // Move the 'seq' field past the whole block
 
         // Find the document and increment the sequence. If not found, insert a new one.
-        DatabaseSequence counter = mongoOperations.findAndModify(query,
+        DatabaseSequence counter = mongoLimiter.call(() -> mongoOperations.findAndModify(query,
                 update, FindAndModifyOptions.options().returnNew(true).upsert(true),
-                DatabaseSequence.class);
+                DatabaseSequence.class));
 
-        // Return the sequence value, defaulting to 1 if it was just created
-        return Objects.requireNonNull(counter).getSeq() > 0 ? (int) counter.getSeq() : 1;
+        long hi = Objects.requireNonNull(counter).getSeq();
+        log.debug("Leased IDs {}..{} from sequence '{}'.", hi - size + 1, hi, seqName);
+        return new Block(hi - size + 1, hi);
     }
-}
 
+    /**
+     * A leased range of sequence values; {@code next} is handed out without locking.
+     */
+    private static final class Block {
+        private final long end; // inclusive
+        private final AtomicLong next;
+
+        private Block(long start, long end) {
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+
+    /**
+     * Hands out IDs for one sequence from the current block and keeps the next block ready.
+     */
+    private final class BlockAllocator {
+        private final String seqName;
+        private final AtomicReference<CompletableFuture<Block>> prefetched = new AtomicReference<>();
+        private final ReentrantLock advanceLock = new ReentrantLock(); // Not synchronized: no pinning while leasing
+        private volatile Block current = new Block(1, 0); // Empty, forces a lease on first use
+
+        private BlockAllocator(String seqName) {
+            this.seqName = seqName;
+        }
+
+        private long next() {
+            while (true) {
+                Block block = current;
+                long id = block.next.getAndIncrement();
+                if (id <= block.end) {
+                    // Exactly one caller sees this value, so at most one refill is started per block
+                    if (block.end - id == refillThreshold) {
+                        prefetch();
+                    }
+                    return id;
+                }
+                advance(block);
+            }
+        }
+
+        private void prefetch() {
+            CompletableFuture<Block> pending = new CompletableFuture<>();
+            if (!prefetched.compareAndSet(null, pending)) {
+                return; // A refill is already running or waiting to be used
+            }
+            try {
+                refillExecutor.execute(() -> {
+                    try {
+                        pending.complete(lease(seqName, blockSize));
+                    } catch (Throwable e) {
+                        pending.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+
+        private void advance(Block exhausted) {
+            advanceLock.lock();
+            try {
+                advanceLocked(exhausted);
+            } finally {
+                advanceLock.unlock();
+            }
+        }
+
+        private void advanceLocked(Block exhausted) {
+            if (current != exhausted) {
+                return; // Another thread already moved to a fresh block
+            }
+            CompletableFuture<Block> pending = prefetched.getAndSet(null);
+            Block nextBlock = null;
+            if (pending != null) {
+                try {
+                    nextBlock = pending.join();
+                } catch (CompletionException e) {
+                    log.warn("Background lease for sequence '{}' failed, leasing synchronously: {}",
+                            seqName, e.getMessage());
+                }
+            }
+            current = nextBlock != null ? nextBlock : lease(seqName, blockSize);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.jfd.worker.mgmt.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of workers by ID.
+ * <p>
+ * Entries are evicted by size and by time since write. Writes invalidate the local entry and publish
+ * the worker IDs on the invalidation topic so every other instance drops its copy as well; the TTL
+ * bounds staleness if an invalidation message is lost. A message carries the comma-separated IDs as
+ * its value and the publishing instance in the {@value #INSTANCE_HEADER} header. Hit, miss and
+ * eviction counts are exposed through Micrometer as the {@code cache.*} meters tagged {@code cache=workers}.
+ */
+@Slf4j
+@Component
+public class WorkerCache {
+
+    static final String INSTANCE_HEADER = "instance-id";
+
+    private final String instanceId = UUID.randomUUID().toString(); // Lets an instance skip its own messages
+    private final boolean enabled;
+    private final AsyncCache<Integer, WorkerInformation> cache; // Pending loads are entries, so invalidation removes them
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ConcurrencyLimiter kafkaLimiter;
+
+    @Value("${app.kafka.topic.worker.cache-invalidation:worker-cache-invalidation}")
+    private String invalidationTopic;
+
+    /**
+     * Constructor for WorkerCache.
+     * @param enabled Whether workers are cached at all.
+     * @param maximumSize Maximum number of cached workers.
+     * @param ttl Time after which a cached worker is reloaded.
+     * @param kafkaTemplate Kafka template for publishing invalidations.
+     * @param meterRegistry Registry the cache statistics are bound to.
+     * @param kafkaLimiter Bounds concurrent Kafka producer calls.
+     */
+    public WorkerCache(@Value("${app.worker.cache.enabled:true}") boolean enabled,
+                       @Value("${app.worker.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${app.worker.cache.ttl:PT1M}") Duration ttl,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Qualifier("kafkaConcurrencyLimiter") ConcurrencyLimiter kafkaLimiter) {
+        this.enabled = enabled;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaLimiter = kafkaLimiter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "workers");
+    }
+
+    /**
+     * Returns the cached worker, loading and caching it on a miss.
+     * <p>
+     * The load is registered in the cache before it starts, and concurrent misses for the same ID
+     * wait for it instead of loading again. An invalidation while the load is running removes it,
+     * so a read racing with an update or delete can return the old worker to its own caller but
+     * never puts it back in the cache. The loader runs on the calling thread outside the cache's
+     * internal locks, so a virtual thread doing the MongoDB read is never pinned.
+     *
+     * @param id The ID of the worker.
+     * @param loader Loads the worker from MongoDB; may return null, which is not cached.
+     * @return The worker, or null if the loader found none.
+     */
+    public WorkerInformation get(Integer id, Function<Integer, WorkerInformation> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        CompletableFuture<WorkerInformation> cached = cache.getIfPresent(id);
+        if (cached == null) {
+            CompletableFuture<WorkerInformation> loading = new CompletableFuture<>();
+            cached = cache.asMap().putIfAbsent(id, loading);
+            if (cached == null) {
+                try {
+                    WorkerInformation worker = loader.apply(id);
+                    loading.complete(worker); // Completing with null removes the entry
+                    return worker;
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops a worker from this instance's cache and tells the other instances to do the same.
+     * @param id The ID of the changed or deleted worker.
+     */
+    public void invalidate(Integer id) {
+        if (!enabled) {
+            return;
+        }
+        cache.synchronous().invalidate(id);
+        ProducerRecord<String, String> message = invalidation(String.valueOf(id), String.valueOf(id));
+        kafkaLimiter.call(() -> kafkaTemplate.send(message))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish cache invalidation for worker ID {}: {}", id, ex.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Drops many workers at once and tells the other instances with a single message.
+     * The message has no key, so bulk invalidations spread over the partitions instead of
+     * all hashing to the one of a huge comma-separated key.
+     * @param ids The IDs of the changed workers.
+     */
+    public void invalidateAll(Collection<Integer> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        cache.synchronous().invalidateAll(ids);
+        ProducerRecord<String, String> message = invalidation(null,
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        kafkaLimiter.call(() -> kafkaTemplate.send(message))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish cache invalidation for {} workers: {}", ids.size(), ex.getMessage());
+                    }
+                });
+    }
+
+    private ProducerRecord<String, String> invalidation(String key, String ids) {
+        ProducerRecord<String, String> message = new ProducerRecord<>(invalidationTopic, key, ids);
+        message.headers().add(INSTANCE_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+        return message;
+    }
+
+    /**
+     * Applies invalidations published by other instances.
+     * Each instance consumes with its own group so that every instance sees every message.
+     *
+     * @param message Record valued with the comma-separated worker IDs, with the publishing instance in a header.
+     */
+    @KafkaListener(topics = "${app.kafka.topic.worker.cache-invalidation:worker-cache-invalidation}",
+            groupId = "${spring.application.name}-cache-#{T(java.util.UUID).randomUUID()}",
+            autoStartup = "${app.worker.cache.enabled:true}")
+    public void onInvalidation(ConsumerRecord<String, String> message) {
+        Header instance = message.headers().lastHeader(INSTANCE_HEADER);
+        if (instance == null) {
+            log.warn("Ignoring cache invalidation without the {} header.", INSTANCE_HEADER);
+            return;
+        }
+        String source = new String(instance.value(), StandardCharsets.UTF_8);
+        String ids = message.value();
+        if (instanceId.equals(source) || ids == null) {
+            return;
+        }
+        try {
+            for (String id : ids.split(",")) {
+                cache.synchronous().invalidate(Integer.valueOf(id));
+            }
+            log.debug("Invalidated cached worker IDs {} on request of instance {}.", ids, source);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring cache invalidation with invalid worker IDs '{}'.", ids);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for proximity searches over worker locations.
+ * On-duty searches are served from the {@link ActiveWorkerGeoGrid} when it is enabled and seeded;
+ * everything else uses {@code $geoNear} on the 2dsphere index of the workers collection.
+ */
+@Slf4j
+@Service
+public class WorkerLocationService {
+
+    private static final int MAX_RESULTS = 1000;
+
+    private final MongoOperations mongoOperations;
+    private final ActiveWorkerGeoGrid activeWorkerGeoGrid;
+    private final ConcurrencyLimiter mongoLimiter;
+
+    public WorkerLocationService(MongoOperations mongoOperations, ActiveWorkerGeoGrid activeWorkerGeoGrid,
+                                 @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter) {
+        this.mongoOperations = mongoOperations;
+        this.activeWorkerGeoGrid = activeWorkerGeoGrid;
+        this.mongoLimiter = mongoLimiter;
+    }
+
+    /**
+     * Seeds the in-memory grid with the on-duty workers stored in MongoDB.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedActiveWorkerGrid() {
+        if (!activeWorkerGeoGrid.isEnabled()) {
+            return;
+        }
+        Query query = new Query(Criteria.where("status").is(WorkerStatus.ON_DUTY)).cursorBatchSize(1000);
+        try (Stream<WorkerInformation> workers = mongoOperations.stream(query, WorkerInformation.class)) {
+            workers.forEach(activeWorkerGeoGrid::update);
+        }
+        activeWorkerGeoGrid.markReady();
+    }
+
+    /**
+     * Finds the workers nearest to a point, optionally only within a radius and only on-duty ones.
+     *
+     * @param latitude Latitude of the search point.
+     * @param longitude Longitude of the search point.
+     * @param k Maximum number of workers to return (1 to 1000).
+     * @param radiusKm Optional maximum distance in kilometres.
+     * @param onDutyOnly Whether to return only workers with status ON_DUTY.
+     * @return Up to k workers ordered by increasing distance.
+     */
+    public List<NearbyWorker> findNearbyWorkers(double latitude, double longitude, int k, Double radiusKm, boolean onDutyOnly) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        if (k < 1 || k > MAX_RESULTS) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_RESULTS);
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        if (onDutyOnly && activeWorkerGeoGrid.isReady()) {
+            List<NearbyWorker> nearest = activeWorkerGeoGrid.nearest(latitude, longitude, k, radiusKm);
+            if (nearest != null) {
+                return nearest;
+            }
+            log.debug("Geo grid could not settle query near ({}, {}), falling back to MongoDB.", latitude, longitude);
+        }
+
+        NearQuery nearQuery = NearQuery.near(new GeoJsonPoint(longitude, latitude), Metrics.KILOMETERS)
+                .spherical(true)
+                .limit(k);
+        if (radiusKm != null) {
+            nearQuery.maxDistance(new Distance(radiusKm, Metrics.KILOMETERS));
+        }
+        if (onDutyOnly) {
+            nearQuery.query(new Query(Criteria.where("status").is(WorkerStatus.ON_DUTY)));
+        }
+        GeoResults<WorkerInformation> results =
+                mongoLimiter.call(() -> mongoOperations.geoNear(nearQuery, WorkerInformation.class));
+        return results.getContent().stream()
+                .map(result -> new NearbyWorker(result.getContent(), result.getDistance().getValue()))
+                .toList();
+    }
+}
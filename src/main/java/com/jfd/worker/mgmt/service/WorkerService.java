@@ -2,119 +2,483 @@ package com.jfd.worker.mgmt.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.event.WorkerChangeEvent;
+import com.jfd.worker.mgmt.event.WorkerEventCodec;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
+import com.jfd.worker.mgmt.metrics.StageMetrics;
+import com.jfd.worker.mgmt.metrics.TracePropagation;
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.registration.BulkRegistrationResult;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionRequest;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionResult;
 import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerPage;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.registration.WorkerSummary;
+import com.jfd.worker.mgmt.model.registration.WorkerSummaryPage;
+import com.jfd.worker.mgmt.repository.MongoReadRouting;
 import com.jfd.worker.mgmt.repository.WorkerInformationRepository;
+import com.jfd.worker.mgmt.repository.WorkerPhoneNumberCallback;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service layer for handling WorkerInformation operations.
- * Manages persistence to MongoDB and publishing to Kafka.
+ * Manages persistence to MongoDB and queues Kafka events in the transactional outbox.
+ * Each stage of registration, update and deletion is timed through {@link StageMetrics}.
  */
 @Slf4j
 @Service
 public class WorkerService {
+    private static final String WORKERS_SEQUENCE = "workers_sequence";
+    private static final String CONTINUATION_PREFIX = "w1:"; // Versions the continuation token format
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int STATUS_TRANSITION_BATCH_SIZE = 1000;
+    private static final ObjectMapper CHANGE_EVENT_MAPPER = WorkerEventCodec.jsonMapper();
+
     private final WorkerInformationRepository workerInformationRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final MongoOperations mongoOperations;
+    private final MongoReadRouting readRouting;
+    private final Validator validator;
+    private final WorkerEventSerializer workerEventSerializer;
+    private final ConcurrencyLimiter mongoLimiter;
     private final SequenceGeneratorService sequenceGeneratorService; // Inject the sequence generator
+    private final ActiveWorkerGeoGrid activeWorkerGeoGrid;
+    private final WorkerStatistics workerStatistics;
+    private final WorkerCache workerCache;
+    private final TransactionTemplate transactionTemplate;
+    private final StageMetrics stageMetrics;
+    private final TracePropagation tracePropagation;
 
     @Value("${app.kafka.topic.worker.registration}") // Injects the Kafka topic name from properties
     private String kafkaTopic;
 
+    @Value("${app.kafka.topic.worker.update:worker-updates}")
+    private String updateTopic;
+
     /**
      * Constructor for WorkerService.
      * @param workerInformationRepository Repository for MongoDB operations.
-     * @param kafkaTemplate Kafka template for sending messages.
+     * @param mongoOperations Mongo operations for bulk writes.
+     * @param readRouting Chooses primary or secondary for list, search and stream reads.
+     * @param validator Bean Validation validator for bulk items.
+     * @param activeWorkerGeoGrid In-memory grid of on-duty workers, kept current on every write.
+     * @param workerStatistics In-memory counts and heatmap, kept current on every write.
+     * @param workerCache Read-through cache for lookups by ID.
+     * @param transactionTemplate Template for MongoDB transactions (worker plus outbox event).
+     * @param workerEventSerializer Encoder for the Kafka event payloads.
+     * @param mongoLimiter Bounds concurrent MongoDB calls from request threads.
+     * @param stageMetrics Timers for the stages of each operation.
+     * @param tracePropagation Captures the trace context stored with outbox events.
      */
-    public WorkerService(WorkerInformationRepository workerInformationRepository, KafkaTemplate<String, String> kafkaTemplate,SequenceGeneratorService sequenceGeneratorService) {
+    public WorkerService(WorkerInformationRepository workerInformationRepository, MongoOperations mongoOperations,
+                         MongoReadRouting readRouting, Validator validator, SequenceGeneratorService sequenceGeneratorService,
+                         ActiveWorkerGeoGrid activeWorkerGeoGrid, WorkerStatistics workerStatistics, WorkerCache workerCache,
+                         TransactionTemplate transactionTemplate, WorkerEventSerializer workerEventSerializer,
+                         @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter,
+                         StageMetrics stageMetrics, TracePropagation tracePropagation) {
         this.workerInformationRepository = workerInformationRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.mongoOperations = mongoOperations;
+        this.readRouting = readRouting;
+        this.validator = validator;
         this.sequenceGeneratorService = sequenceGeneratorService; // Initialize the sequence generator
-        this.objectMapper = new ObjectMapper();
-        // Register JavaTimeModule to correctly serialize LocalDateTime objects
-        this.objectMapper.registerModule(new JavaTimeModule());
-        // Disable WRITE_DATES_AS_TIMESTAMPS to serialize dates as ISO-8601 strings
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.activeWorkerGeoGrid = activeWorkerGeoGrid;
+        this.workerStatistics = workerStatistics;
+        this.workerCache = workerCache;
+        this.transactionTemplate = transactionTemplate;
+        this.workerEventSerializer = workerEventSerializer;
+        this.mongoLimiter = mongoLimiter;
+        this.stageMetrics = stageMetrics;
+        this.tracePropagation = tracePropagation;
     }
     /**
-     * Registers a new worker by saving their information to MongoDB
-     * and then publishing the saved data to Kafka.
+     * Registers a new worker by saving their information to MongoDB together with a registration
+     * event in the outbox, in one transaction. The {@link OutboxRelay} publishes the event to Kafka.
      *
      * @param workerInformation The worker information to register.
      * @return The saved WorkerInformation object.
-     * @throws RuntimeException if there's an error during MongoDB save or Kafka publishing.
+     * @throws RuntimeException if there's an error during MongoDB save or event serialization.
      */
     public WorkerInformation registerWorker(WorkerInformation workerInformation) {
         log.info("Attempting to register worker (ID will be auto-generated as Integer).");
 
         // Generate the next sequence ID
-        workerInformation.setId(sequenceGeneratorService.generateSequence("workers_sequence"));
+        workerInformation.setId(stageMetrics.record("register", "sequence",
+                () -> sequenceGeneratorService.generateSequence(WORKERS_SEQUENCE)));
+        workerInformation.setVersion(0L);
         log.debug("Generated ID for worker: {}", workerInformation.getId());;
 
-        // 1. Save to MongoDB
-        WorkerInformation savedWorker = workerInformationRepository.save(workerInformation);
+        // Save to MongoDB and queue the Kafka event atomically
+        OutboxEvent event = stageMetrics.record("register", "encode", () -> registrationEvent(workerInformation));
+        WorkerInformation savedWorker = stageMetrics.record("register", "transaction",
+                () -> mongoLimiter.call(() -> transactionTemplate.execute(status -> {
+                    WorkerInformation saved = stageMetrics.record("register", "save",
+                            () -> workerInformationRepository.save(workerInformation));
+                    stageMetrics.run("register", "outbox", () -> mongoOperations.insert(event));
+                    return saved;
+                })));
         log.info("Worker with ID {} saved to MongoDB successfully.", savedWorker.getId());
-
-        // 2. Publish to Kafka
-        publishWorkerRegistrationEvent(savedWorker);
+        stageMetrics.run("register", "grid", () -> activeWorkerGeoGrid.update(savedWorker));
+        workerStatistics.added(savedWorker);
         return savedWorker;
     }
 
     /**
-     * Publishes the WorkerInformation object to the configured Kafka topic.
-     * The object is serialized to a JSON string.
+     * Registers a batch of workers. Each item is validated on its own; the valid ones get their IDs
+     * from a single sequence reservation and are written with one unordered bulk insert, together
+     * with their outbox events in the same transaction. An invalid or rejected item does not fail
+     * the others.
+     * <p>
+     * Inside a transaction the first write error aborts the whole insert, so rejected items cannot
+     * be left to MongoDB: phone numbers that are already registered, or repeated within the batch,
+     * are found with one query up front and reported as failed. A worker registered elsewhere in
+     * the meantime still aborts the transaction, which is then retried without it.
      *
-     * @param workerInformation The worker information to publish.
+     * @param workers The workers to register, in request order (null marks an unreadable item).
+     * @return One result per item, in the same order as the input.
      */
-    @Async
-    private void publishWorkerRegistrationEvent(WorkerInformation workerInformation) {
+    public List<BulkRegistrationResult> registerWorkers(List<WorkerInformation> workers) {
+        BulkRegistrationResult[] results = new BulkRegistrationResult[workers.size()];
+        List<WorkerInformation> accepted = new ArrayList<>(workers.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(workers.size());
+
+        for (int i = 0; i < workers.size(); i++) {
+            WorkerInformation worker = workers.get(i);
+            if (worker == null) {
+                results[i] = BulkRegistrationResult.invalid(i, Map.of("body", "Worker information cannot be null"));
+                continue;
+            }
+            Map<String, String> errors = new HashMap<>();
+            for (ConstraintViolation<WorkerInformation> violation : validator.validate(worker)) {
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            if (errors.isEmpty()) {
+                accepted.add(worker);
+                acceptedIndexes.add(i);
+            } else {
+                results[i] = BulkRegistrationResult.invalid(i, errors);
+            }
+        }
+        log.info("Bulk registration: {} of {} workers passed validation.", accepted.size(), workers.size());
+        if (!accepted.isEmpty()) {
+            rejectDuplicatePhoneNumbers(accepted, acceptedIndexes, results);
+        }
+        if (accepted.isEmpty()) {
+            return List.of(results);
+        }
+
+        // Allocate all IDs with one sequence operation
+        int firstId = sequenceGeneratorService.generateSequences(WORKERS_SEQUENCE, accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).setId(firstId + i);
+            accepted.get(i).setVersion(0L);
+        }
+
+        List<OutboxEvent> events = new ArrayList<>(accepted.size());
+        for (WorkerInformation worker : accepted) {
+            events.add(registrationEvent(worker));
+        }
+
+        Map<Integer, String> writeErrors = new HashMap<>();
+        List<Integer> pending = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            pending.add(i);
+        }
+        while (!pending.isEmpty()) {
+            List<Integer> attempt = pending;
+            try {
+                mongoLimiter.run(() -> transactionTemplate.executeWithoutResult(status -> {
+                    mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkerInformation.class)
+                            .insert(attempt.stream().map(accepted::get).toList())
+                            .execute();
+                    mongoOperations.insert(attempt.stream().map(events::get).toList(), OutboxEvent.class);
+                }));
+                break;
+            } catch (BulkOperationException e) {
+                if (e.getErrors().isEmpty()) {
+                    throw e;
+                }
+                Set<Integer> rejected = new HashSet<>();
+                for (BulkWriteError error : e.getErrors()) {
+                    int position = attempt.get(error.getIndex());
+                    writeErrors.put(position, error.getMessage());
+                    rejected.add(position);
+                }
+                pending = attempt.stream().filter(position -> !rejected.contains(position)).toList();
+                log.warn("Bulk registration: {} workers were rejected by MongoDB (registered concurrently), "
+                        + "retrying the remaining {}.", rejected.size(), pending.size());
+            }
+        }
+
+        List<WorkerInformation> saved = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            String writeError = writeErrors.get(i);
+            if (writeError != null) {
+                results[index] = BulkRegistrationResult.failed(index, writeError);
+            } else {
+                saved.add(accepted.get(i));
+                activeWorkerGeoGrid.update(accepted.get(i));
+                workerStatistics.added(accepted.get(i));
+                results[index] = BulkRegistrationResult.created(index, accepted.get(i).getId());
+            }
+        }
+        log.info("Bulk registration: {} workers saved to MongoDB successfully.", saved.size());
+        return List.of(results);
+    }
+
+    /**
+     * Removes the workers whose phone number is already registered, or was already taken by an
+     * earlier item of the batch, and reports them as failed. One query reads every registered
+     * number of the batch from the unique phone number index.
+     *
+     * @param accepted The valid workers; the rejected ones are removed.
+     * @param acceptedIndexes Request positions of the valid workers, kept in step with them.
+     * @param results Results by request position; the rejected workers' results are set.
+     */
+    private void rejectDuplicatePhoneNumbers(List<WorkerInformation> accepted, List<Integer> acceptedIndexes,
+                                             BulkRegistrationResult[] results) {
+        List<String> keys = accepted.stream()
+                .map(worker -> WorkerPhoneNumberCallback.phoneNumberKey(worker.getPhoneNumber()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Query query = new Query(Criteria.where("phoneNumberKey").in(keys));
+        query.fields().include("phoneNumberKey");
+        Set<String> registered = new HashSet<>();
+        for (WorkerInformation worker : mongoLimiter.call(() -> mongoOperations.find(query, WorkerInformation.class))) {
+            registered.add(worker.getPhoneNumberKey());
+        }
+
+        Set<String> seen = new HashSet<>();
+        int kept = 0;
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            String key = WorkerPhoneNumberCallback.phoneNumberKey(accepted.get(i).getPhoneNumber());
+            if (key != null && registered.contains(key)) {
+                results[index] = BulkRegistrationResult.failed(index, "A worker with this phone number is already registered");
+            } else if (key != null && !seen.add(key)) {
+                results[index] = BulkRegistrationResult.failed(index, "The phone number is repeated in this batch");
+            } else {
+                accepted.set(kept, accepted.get(i));
+                acceptedIndexes.set(kept, index);
+                kept++;
+            }
+        }
+        if (kept < accepted.size()) {
+            log.info("Bulk registration: {} workers rejected for a duplicate phone number.", accepted.size() - kept);
+            accepted.subList(kept, accepted.size()).clear();
+            acceptedIndexes.subList(kept, acceptedIndexes.size()).clear();
+        }
+    }
+
+    /**
+     * Builds the outbox event announcing a registration.
+     * The worker is encoded in the configured event format and keyed by its ID.
+     *
+     * @param workerInformation The worker information to publish, with its ID set.
+     * @return The outbox event to insert alongside the worker.
+     */
+    private OutboxEvent registrationEvent(WorkerInformation workerInformation) {
         try {
-            String workerJson = objectMapper.writeValueAsString(workerInformation);
-            // Send message to Kafka with worker's ID as the key
-            kafkaTemplate.send(kafkaTopic, String.valueOf(workerInformation.getId()), workerJson);
-            log.info("Worker with ID {} published to Kafka topic '{}' successfully.", workerInformation.getId(), kafkaTopic);
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing WorkerInformation to JSON for Kafka: {}", e.getMessage(), e);
+            byte[] payload = workerEventSerializer.serialize(kafkaTopic, workerInformation);
+            return new OutboxEvent(null, kafkaTopic, String.valueOf(workerInformation.getId()), payload,
+                    workerEventSerializer.contentType(), Instant.now(), tracePropagation.currentHeaders());
+        } catch (SerializationException e) {
+            log.error("Error serializing WorkerInformation for Kafka: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to serialize worker information for Kafka", e);
-        } catch (Exception e) {
-            log.error("Error publishing worker with ID {} to Kafka: {}", workerInformation.getId(), e.getMessage(), e);
-            throw new RuntimeException("Failed to publish worker information to Kafka", e);
         }
     }
 
     /**
-     * Retrieves the WorkerInformation by ID.
+     * Retrieves the WorkerInformation by ID, served from the worker cache when possible.
      * @param id The ID of the worker to retrieve.
      * @return The WorkerInformation object if found.
      */
     public WorkerInformation getWorkerById(Integer id) {
-        return workerInformationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Worker with ID " + id + " not found"));
+        WorkerInformation worker = workerCache.get(id,
+                key -> mongoLimiter.call(() -> workerInformationRepository.findById(key).orElse(null)));
+        if (worker == null) {
+            throw new RuntimeException("Worker with ID " + id + " not found");
+        }
+        return worker;
     }
 
     /**
-     * Retrieves all workers from the MongoDB repository.
-     * @return A list of all WorkerInformation objects.
+     * Retrieves one page of workers ordered by ID, using keyset pagination on {@code _id}
+     * so every page costs the same regardless of how deep into the collection it is.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param continuation Token from the previous page, or null for the first page.
+     * @param limit Maximum number of workers in the page (1 to 1000).
+     * @param readAfter The client's read-after token, or null; see {@link MongoReadRouting}.
+     * @return The page, with a continuation token if more workers may follow.
      */
-    public List<WorkerInformation> getAllWorkers() {
-        return workerInformationRepository.findAll();
+    public WorkerPage getWorkers(WorkerStatus status, EkycId ekycId, String continuation, int limit, Long readAfter) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Query query = filterQuery(status, ekycId);
+        if (continuation != null && !continuation.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(decodeContinuation(continuation)));
+        }
+        // Fetch one extra document to know whether another page exists
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit + 1);
+
+        MongoOperations readOperations = readRouting.forRead("list", readAfter);
+        List<WorkerInformation> workers = mongoLimiter.call(() -> readOperations.find(query, WorkerInformation.class));
+        if (workers.size() <= limit) {
+            return new WorkerPage(workers, null);
+        }
+        List<WorkerInformation> page = workers.subList(0, limit);
+        return new WorkerPage(page, encodeContinuation(page.get(limit - 1).getId()));
     }
+
+    /**
+     * Searches workers and returns summaries, one page at a time in ID order.
+     * A phone number search is a single lookup on the unique phone number index; the status and
+     * eKYC filters use the compound indexes declared on {@link WorkerInformation}. Only the
+     * summary fields are read from MongoDB.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param phoneNumber Optional phone number, in any accepted format.
+     * @param continuation Token from the previous page, or null for the first page.
+     * @param limit Maximum number of workers in the page (1 to 1000).
+     * @param readAfter The client's read-after token, or null; see {@link MongoReadRouting}.
+     * @return The page, with a continuation token if more workers may follow.
+     */
+    public WorkerSummaryPage searchWorkers(WorkerStatus status, EkycId ekycId, String phoneNumber,
+                                           String continuation, int limit, Long readAfter) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        MongoOperations readOperations = readRouting.forRead("search", readAfter);
+        if (phoneNumber != null) {
+            String phoneNumberKey = WorkerPhoneNumberCallback.phoneNumberKey(phoneNumber);
+            if (phoneNumberKey == null) {
+                throw new IllegalArgumentException("Invalid phone number");
+            }
+            List<WorkerSummary> match = stageMetrics.record("search", "phone-lookup",
+                    () -> mongoLimiter.call(() -> readOperations.query(WorkerInformation.class).as(WorkerSummary.class)
+                            .matching(Query.query(Criteria.where("phoneNumberKey").is(phoneNumberKey))).one()))
+                    .filter(worker -> status == null || worker.getStatus() == status)
+                    .filter(worker -> ekycId == null || worker.getEkycId() == ekycId)
+                    .stream().toList();
+            return new WorkerSummaryPage(match, null);
+        }
+
+        Query query = filterQuery(status, ekycId);
+        if (continuation != null && !continuation.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(decodeContinuation(continuation)));
+        }
+        // Fetch one extra document to know whether another page exists
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit + 1);
+
+        List<WorkerSummary> workers = stageMetrics.record("search", "query", () -> mongoLimiter.call(
+                () -> readOperations.query(WorkerInformation.class).as(WorkerSummary.class).matching(query).all()));
+        if (workers.size() <= limit) {
+            return new WorkerSummaryPage(workers, null);
+        }
+        List<WorkerSummary> page = workers.subList(0, limit);
+        return new WorkerSummaryPage(page, encodeContinuation(page.get(limit - 1).getId()));
+    }
+
     /**
-     * Deletes a worker by ID.
+     * Streams all matching workers ordered by ID from a MongoDB cursor, so memory use does not
+     * depend on the size of the collection. The stream holds a MongoDB permit until it is closed,
+     * so the caller must close it.
+     *
+     * @param status Optional status filter.
+     * @param ekycId Optional eKYC type filter.
+     * @param readAfter The client's read-after token, or null; see {@link MongoReadRouting}.
+     * @return A lazily-fetched stream of workers.
+     */
+    public Stream<WorkerInformation> streamWorkers(WorkerStatus status, EkycId ekycId, Long readAfter) {
+        Query query = filterQuery(status, ekycId)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        MongoOperations readOperations = readRouting.forRead("stream", readAfter);
+        return mongoLimiter.stream(() -> readOperations.stream(query, WorkerInformation.class));
+    }
+
+    private Query filterQuery(WorkerStatus status, EkycId ekycId) {
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (ekycId != null) {
+            query.addCriteria(Criteria.where("ekycId").is(ekycId));
+        }
+        return query;
+    }
+
+    private static String encodeContinuation(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CONTINUATION_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeContinuation(String continuation) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(continuation), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CONTINUATION_PREFIX)) {
+                throw new IllegalArgumentException("Invalid continuation token");
+            }
+            return Integer.parseInt(decoded.substring(CONTINUATION_PREFIX.length()));
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+
+    /**
+     * Deletes a worker by ID with a single {@code findAndRemove}, which also returns the fields the
+     * statistics need to stop counting the worker.
      * @param id The ID of the worker to delete.
      */
     public void deleteWorkerById(Integer id) {
-        if (workerInformationRepository.existsById(id)) {
-            workerInformationRepository.deleteById(id);
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include("status", "ekycId", "latitude", "longitude");
+        WorkerInformation deleted = stageMetrics.record("delete", "delete", () -> mongoLimiter.call(
+                () -> mongoOperations.findAndRemove(query, WorkerInformation.class)));
+        if (deleted != null) {
+            stageMetrics.run("delete", "cache-invalidation", () -> workerCache.invalidate(id));
+            stageMetrics.run("delete", "grid", () -> activeWorkerGeoGrid.remove(id));
+            workerStatistics.removed(deleted);
             log.info("Worker with ID {} deleted successfully.", id);
         } else {
             log.warn("Attempted to delete non-existent worker with ID {}", id);
@@ -123,27 +487,299 @@ public class WorkerService {
     }
 
     /**
-     * Updates a worker's information by ID.
+     * Updates a worker's name, phone number and address by ID.
+     * If the body carries a version, the update only applies to that version of the worker.
      * @param id The ID of the worker to update.
      * @param workerInformation The updated WorkerInformation object.
      * @return The updated WorkerInformation object.
      */
     public WorkerInformation updateWorkerById(Integer id, @Valid WorkerInformation workerInformation) {
-        WorkerInformation existingWorker = workerInformationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Worker with ID " + id + " not found"));
+        WorkerPatch patch = new WorkerPatch();
+        patch.setName(workerInformation.getName());
+        patch.setPhoneNumber(workerInformation.getPhoneNumber());
+        patch.setAddress(workerInformation.getAddress());
+        patch.setVersion(workerInformation.getVersion());
+        return patchWorker(id, patch);
+    }
 
-        // Update fields as needed
-        existingWorker.setName(workerInformation.getName());
-        existingWorker.setPhoneNumber(workerInformation.getPhoneNumber());
-        existingWorker.setAddress(workerInformation.getAddress());
-        // Add other fields as necessary
+    /**
+     * Applies a partial update to a worker in one atomic {@code findAndModify}: the set fields
+     * become a single {@code $set} and the version is incremented. The same operation returns the
+     * document as it was, so the statistics can move the worker between counters; the patch is then
+     * applied to it in memory to produce the result. A field-level change event is written to the
+     * outbox in the same transaction. A status change only matches workers whose current status
+     * allows it (see {@link WorkerStatus#canTransitionTo}).
+     *
+     * @param id The ID of the worker to update.
+     * @param patch The fields to change, optionally with the version they are based on.
+     * @return The updated WorkerInformation object.
+     * @throws WorkerVersionConflictException if the worker no longer has the given version.
+     * @throws WorkerStatusConflictException if the worker's status cannot move to the given status.
+     */
+    public WorkerInformation patchWorker(Integer id, WorkerPatch patch) {
+        if ((patch.getLatitude() == null) != (patch.getLongitude() == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be changed together");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfSet(changes, "name", patch.getName());
+        putIfSet(changes, "age", patch.getAge());
+        putIfSet(changes, "phoneNumber", patch.getPhoneNumber());
+        putIfSet(changes, "ekycId", patch.getEkycId());
+        putIfSet(changes, "ekycData", patch.getEkycData());
+        putIfSet(changes, "address", patch.getAddress());
+        putIfSet(changes, "latitude", patch.getLatitude());
+        putIfSet(changes, "longitude", patch.getLongitude());
+        putIfSet(changes, "status", patch.getStatus());
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
 
-        WorkerInformation updatedWorker = workerInformationRepository.save(existingWorker);
-        log.info("Worker with ID {} updated successfully.", id);
+        Update update = new Update();
+        changes.forEach(update::set);
+        if (patch.getPhoneNumber() != null) {
+            update.set("phoneNumberKey", WorkerPhoneNumberCallback.phoneNumberKey(patch.getPhoneNumber()));
+        }
+        if (patch.getLatitude() != null) {
+            update.set("location", new GeoJsonPoint(patch.getLongitude(), patch.getLatitude()));
+        }
+        update.inc("version", 1);
 
-        // Optionally publish update event to Kafka if needed
-        // publishWorkerRegistrationEvent(updatedWorker);
+        Query query = new Query(Criteria.where("id").is(id));
+        if (patch.getVersion() != null) {
+            query.addCriteria(versionIs(patch.getVersion()));
+        }
+        if (patch.getStatus() != null) {
+            query.addCriteria(Criteria.where("status").in(WorkerStatus.allowedSources(patch.getStatus())));
+        }
 
+        PatchedWorker patched = stageMetrics.record("update", "transaction",
+                () -> mongoLimiter.call(() -> transactionTemplate.execute(status -> {
+                    WorkerInformation previous = stageMetrics.record("update", "find-and-modify",
+                            () -> mongoOperations.findAndModify(query, update,
+                                    FindAndModifyOptions.options().returnNew(false), WorkerInformation.class));
+                    if (previous == null) {
+                        return null;
+                    }
+                    PatchedWorker result = applyPatch(previous, patch);
+                    OutboxEvent event = changeEvent(result.after(), changes);
+                    stageMetrics.run("update", "outbox", () -> mongoOperations.insert(event));
+                    return result;
+                })));
+        if (patched == null) {
+            // Only a versioned update or a status change can miss an existing worker; tell a conflict from a missing worker
+            WorkerInformation current = patch.getVersion() == null && patch.getStatus() == null ? null
+                    : mongoLimiter.call(() -> workerInformationRepository.findById(id)).orElse(null);
+            if (current == null) {
+                throw new RuntimeException("Worker with ID " + id + " not found");
+            }
+            long currentVersion = current.getVersion() == null ? 0L : current.getVersion();
+            if (patch.getVersion() != null && patch.getVersion() != currentVersion) {
+                throw new WorkerVersionConflictException("Worker with ID " + id
+                        + " is no longer at version " + patch.getVersion());
+            }
+            throw new WorkerStatusConflictException("Worker with ID " + id + " cannot move from "
+                    + current.getStatus() + " to " + patch.getStatus());
+        }
+        WorkerInformation updatedWorker = patched.after();
+        log.info("Worker with ID {} updated to version {}: {}.", id, updatedWorker.getVersion(), changes.keySet());
+        stageMetrics.run("update", "cache-invalidation", () -> workerCache.invalidate(id));
+        stageMetrics.run("update", "grid", () -> activeWorkerGeoGrid.update(updatedWorker));
+        workerStatistics.changed(patched.before(), updatedWorker);
         return updatedWorker;
     }
+
+    /**
+     * Applies a patch in memory, exactly as the {@code $set} and {@code $inc} of {@link #patchWorker} do in MongoDB.
+     *
+     * @param worker The worker as it was before the update; becomes the updated worker.
+     * @param patch The applied patch.
+     * @return The counted fields before the update, and the updated worker.
+     */
+    private static PatchedWorker applyPatch(WorkerInformation worker, WorkerPatch patch) {
+        WorkerInformation before = new WorkerInformation();
+        before.setStatus(worker.getStatus());
+        before.setEkycId(worker.getEkycId());
+        before.setLatitude(worker.getLatitude());
+        before.setLongitude(worker.getLongitude());
+
+        if (patch.getName() != null) {
+            worker.setName(patch.getName());
+        }
+        if (patch.getAge() != null) {
+            worker.setAge(patch.getAge());
+        }
+        if (patch.getPhoneNumber() != null) {
+            worker.setPhoneNumber(patch.getPhoneNumber());
+            worker.setPhoneNumberKey(WorkerPhoneNumberCallback.phoneNumberKey(patch.getPhoneNumber()));
+        }
+        if (patch.getEkycId() != null) {
+            worker.setEkycId(patch.getEkycId());
+        }
+        if (patch.getEkycData() != null) {
+            worker.setEkycData(patch.getEkycData());
+        }
+        if (patch.getAddress() != null) {
+            worker.setAddress(patch.getAddress());
+        }
+        if (patch.getLatitude() != null) {
+            worker.setLatitude(patch.getLatitude());
+            worker.setLongitude(patch.getLongitude());
+            worker.setLocation(new GeoJsonPoint(patch.getLongitude(), patch.getLatitude()));
+        }
+        if (patch.getStatus() != null) {
+            worker.setStatus(patch.getStatus());
+        }
+        worker.setVersion(worker.getVersion() == null ? 1 : worker.getVersion() + 1);
+        return new PatchedWorker(before, worker);
+    }
+
+    private record PatchedWorker(WorkerInformation before, WorkerInformation after) {
+    }
+
+    /**
+     * Moves many workers to one status, selected by ID or by filter. Only workers whose current
+     * status allows the transition are changed (see {@link WorkerStatus#canTransitionTo}); the rule
+     * is part of the MongoDB query, so it holds under concurrent updates. Workers are processed in
+     * batches of {@value #STATUS_TRANSITION_BATCH_SIZE}, each one transaction that reads the batch,
+     * updates it with one {@code updateMulti} and writes the status-change events to the outbox
+     * with one insert. Cache invalidation is published once per batch.
+     *
+     * @param request The target status and the workers to move.
+     * @return The number of workers moved and, for requests by ID, the IDs left unchanged.
+     */
+    public StatusTransitionResult transitionStatuses(StatusTransitionRequest request) {
+        WorkerStatus target = request.getTargetStatus();
+        Set<WorkerStatus> sources = WorkerStatus.allowedSources(target);
+        List<Integer> ids = request.getIds();
+        if (ids == null && request.getStatus() == null && request.getEkycId() == null) {
+            throw new IllegalArgumentException("Select workers by ids or by a status or ekycId filter");
+        }
+        if (request.getStatus() != null && !sources.contains(request.getStatus())) {
+            log.info("No worker can move from {} to {}.", request.getStatus(), target);
+            return new StatusTransitionResult(target, 0, ids == null ? null : ids.stream().distinct().toList());
+        }
+
+        int transitioned = 0;
+        if (ids != null) {
+            Set<Integer> changedIds = new HashSet<>(ids.size());
+            for (int from = 0; from < ids.size(); from += STATUS_TRANSITION_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + STATUS_TRANSITION_BATCH_SIZE));
+                Query query = selectionQuery(request, sources).addCriteria(Criteria.where("id").in(batch));
+                for (WorkerInformation worker : transitionBatch(query, target, sources)) {
+                    changedIds.add(worker.getId());
+                }
+            }
+            List<Integer> skippedIds = ids.stream().filter(id -> !changedIds.contains(id)).distinct().toList();
+            transitioned = changedIds.size();
+            log.info("Moved {} of {} requested workers to {}.", transitioned, ids.size(), target);
+            return new StatusTransitionResult(target, transitioned, skippedIds);
+        }
+
+        // By filter: walk the matching workers in ID order, one batch at a time
+        Integer lastId = null;
+        while (true) {
+            Query query = selectionQuery(request, sources);
+            if (lastId != null) {
+                query.addCriteria(Criteria.where("id").gt(lastId));
+            }
+            query.with(Sort.by(Sort.Direction.ASC, "id")).limit(STATUS_TRANSITION_BATCH_SIZE);
+            List<WorkerInformation> changed = transitionBatch(query, target, sources);
+            transitioned += changed.size();
+            if (changed.size() < STATUS_TRANSITION_BATCH_SIZE) {
+                break;
+            }
+            lastId = changed.get(changed.size() - 1).getId();
+        }
+        log.info("Moved {} workers matching status={}, ekycId={} to {}.",
+                transitioned, request.getStatus(), request.getEkycId(), target);
+        return new StatusTransitionResult(target, transitioned, null);
+    }
+
+    /**
+     * Moves one batch of workers to the target status in a single transaction.
+     *
+     * @param query Selects the batch, only workers in an allowed source status.
+     * @param target The status to move to.
+     * @param sources The statuses the target may be reached from.
+     * @return The workers moved, with their new status and version.
+     */
+    private List<WorkerInformation> transitionBatch(Query query, WorkerStatus target, Set<WorkerStatus> sources) {
+        Map<String, Object> changes = Map.of("status", target);
+        List<WorkerStatus> previousStatuses = new ArrayList<>(); // Parallel to the returned workers
+        List<WorkerInformation> changed = stageMetrics.record("status-transition", "transaction",
+                () -> mongoLimiter.call(() -> transactionTemplate.execute(status -> {
+                    previousStatuses.clear();
+                    List<WorkerInformation> found = mongoOperations.find(query, WorkerInformation.class);
+                    if (found.isEmpty()) {
+                        return found;
+                    }
+                    List<Integer> foundIds = found.stream().map(WorkerInformation::getId).toList();
+                    mongoOperations.updateMulti(
+                            new Query(Criteria.where("id").in(foundIds).and("status").in(sources)),
+                            new Update().set("status", target).inc("version", 1),
+                            WorkerInformation.class);
+                    List<OutboxEvent> events = new ArrayList<>(found.size());
+                    for (WorkerInformation worker : found) {
+                        previousStatuses.add(worker.getStatus());
+                        worker.setStatus(target);
+                        worker.setVersion(worker.getVersion() == null ? 1 : worker.getVersion() + 1);
+                        events.add(changeEvent(worker, changes));
+                    }
+                    mongoOperations.insert(events, OutboxEvent.class);
+                    return found;
+                })));
+        if (!changed.isEmpty()) {
+            List<Integer> changedIds = changed.stream().map(WorkerInformation::getId).toList();
+            stageMetrics.run("status-transition", "cache-invalidation", () -> workerCache.invalidateAll(changedIds));
+            stageMetrics.run("status-transition", "grid", () -> changed.forEach(activeWorkerGeoGrid::update));
+            previousStatuses.forEach(previous -> workerStatistics.statusChanged(previous, target));
+        }
+        return changed;
+    }
+
+    /**
+     * @return The request's filter, restricted to workers whose status allows the transition.
+     */
+    private Query selectionQuery(StatusTransitionRequest request, Set<WorkerStatus> sources) {
+        Query query = filterQuery(request.getStatus(), request.getEkycId());
+        if (request.getStatus() == null) {
+            query.addCriteria(Criteria.where("status").in(sources)); // A set status was already checked against sources
+        }
+        return query;
+    }
+
+    private static void putIfSet(Map<String, Object> changes, String field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
+        }
+    }
+
+    /**
+     * Matches the given version; workers written before versioning have no version field and count as 0.
+     */
+    private static Criteria versionIs(long version) {
+        if (version == 0) {
+            return new Criteria().orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false));
+        }
+        return Criteria.where("version").is(version);
+    }
+
+    /**
+     * Builds the outbox event describing a change.
+     *
+     * @param worker The updated worker.
+     * @param changes The changed fields with their new values.
+     * @return The outbox event to insert alongside the change.
+     */
+    private OutboxEvent changeEvent(WorkerInformation worker, Map<String, Object> changes) {
+        try {
+            byte[] payload = CHANGE_EVENT_MAPPER.writeValueAsBytes(
+                    new WorkerChangeEvent(worker.getId(), worker.getVersion(), changes, Instant.now()));
+            return new OutboxEvent(null, updateTopic, String.valueOf(worker.getId()), payload,
+                    WorkerChangeEvent.CONTENT_TYPE, Instant.now(), tracePropagation.currentHeaders());
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing change of worker {} for Kafka: {}", worker.getId(), e.getMessage(), e);
+            throw new RuntimeException("Failed to serialize worker change for Kafka", e);
+        }
+    }
 }
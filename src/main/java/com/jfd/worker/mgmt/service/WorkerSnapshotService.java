@@ -0,0 +1,354 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.config.DatabaseSequence;
+import com.jfd.worker.mgmt.model.snapshot.SnapshotResult;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriter;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the workers collection to a gzip-compressed NDJSON file and imports it back.
+ * <p>
+ * Export reads the collection through a cursor in {@code _id} order and writes each document as one
+ * line of relaxed extended JSON, so every stored field (location, phone number key, version) survives
+ * the round trip. The file is written through a {@link FileChannel} as a series of gzip members of
+ * {@code memberSize} documents each; after every member the channel is forced and a checkpoint with
+ * the last {@code _id} and the file offset is written next to the file. A resumed export truncates
+ * the file to the checkpoint and continues after that {@code _id}. Concatenated gzip members form a
+ * valid gzip file, so standard tools read the result as one stream.
+ * <p>
+ * Import reads the file on one thread and hands batches of lines to a pool of decoders, which parse
+ * them and insert each batch with an unordered bulk insert. At most two batches per decoder are
+ * buffered, so memory stays bounded regardless of the file size. Documents whose {@code _id} already
+ * exists are skipped, which makes an interrupted import safe to run again; a document that clashes
+ * with a different worker on another unique index (the phone number) fails the import. Afterwards
+ * the workers sequence is raised to the highest imported ID.
+ * <p>
+ * Neither direction publishes change events or touches caches; imports are meant for seeding an
+ * environment before the service takes traffic.
+ */
+@Slf4j
+@Service
+public class WorkerSnapshotService {
+
+    private static final String COLLECTION = "workers";
+    private static final String WORKERS_SEQUENCE = "workers_sequence";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String ID_INDEX = "index: _id_ "; // As named in a duplicate key error on _id
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+    private static final Codec<Document> DOCUMENT_CODEC = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+
+    private final MongoOperations mongoOperations;
+    private final ConcurrencyLimiter mongoLimiter;
+    private final int memberSize;
+    private final int importBatchSize;
+    private final int compressionLevel;
+
+    /**
+     * Constructor for WorkerSnapshotService.
+     * @param mongoOperations MongoDB operations for the workers collection.
+     * @param mongoLimiter Bounds concurrent MongoDB calls.
+     * @param memberSize Documents per gzip member, i.e. between export checkpoints.
+     * @param importBatchSize Documents per decode task and bulk insert.
+     * @param compressionLevel Deflate level, 1 (fastest) to 9 (smallest).
+     */
+    public WorkerSnapshotService(MongoOperations mongoOperations,
+                                 @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter,
+                                 @Value("${app.snapshot.member-size:100000}") int memberSize,
+                                 @Value("${app.snapshot.import-batch-size:1000}") int importBatchSize,
+                                 @Value("${app.snapshot.compression-level:1}") int compressionLevel) {
+        this.mongoOperations = mongoOperations;
+        this.mongoLimiter = mongoLimiter;
+        this.memberSize = memberSize;
+        this.importBatchSize = importBatchSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Exports the workers collection.
+     *
+     * @param file The snapshot file to write.
+     * @param resume Whether to continue after the checkpoint of an earlier, interrupted export of the
+     *               same file; without a checkpoint the export starts from the beginning.
+     * @return What was exported in this run.
+     * @throws IOException if the file or its checkpoint cannot be written.
+     */
+    public SnapshotResult exportWorkers(Path file, boolean resume) throws IOException {
+        long start = System.nanoTime();
+        Path checkpointFile = checkpointFile(file);
+        Properties checkpoint = resume && Files.exists(checkpointFile) ? readCheckpoint(checkpointFile) : null;
+        long offset = checkpoint == null ? 0 : Long.parseLong(checkpoint.getProperty("offset"));
+        Integer lastId = checkpoint == null ? null : Integer.valueOf(checkpoint.getProperty("lastId"));
+        if (checkpoint != null) {
+            log.info("Resuming export to {} after worker ID {} at byte {}.", file, lastId, offset);
+        }
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(importBatchSize);
+        if (lastId != null) {
+            query.addCriteria(Criteria.where("_id").gt(lastId));
+        }
+
+        long documents = 0;
+        long bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             Stream<Document> cursor = mongoLimiter.stream(() -> mongoOperations.stream(query, Document.class, COLLECTION))) {
+            // Drop whatever an interrupted export wrote after its last checkpoint
+            channel.truncate(offset);
+            channel.position(offset);
+            OutputStream fileOut = new FilterOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    // Each gzip member is closed on its own; the channel stays open for the next one
+                }
+            };
+
+            Iterator<Document> documentsIterator = cursor.iterator();
+            while (documentsIterator.hasNext()) {
+                int inMember = 0;
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(gzip(fileOut), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                    while (inMember < memberSize && documentsIterator.hasNext()) {
+                        Document document = documentsIterator.next();
+                        DOCUMENT_CODEC.encode(new JsonWriter(writer, JSON_SETTINGS), document, ENCODER_CONTEXT);
+                        writer.write('\n');
+                        lastId = document.getInteger("_id");
+                        inMember++;
+                    }
+                }
+                documents += inMember;
+                channel.force(false);
+                writeCheckpoint(checkpointFile, lastId, channel.position());
+                log.debug("Exported {} workers to {} up to ID {}.", documents, file, lastId);
+            }
+            if (channel.position() == 0) {
+                // Nothing to export: an empty member still makes the file a valid gzip stream
+                gzip(fileOut).close();
+            }
+            bytes = channel.position() - offset;
+        }
+
+        SnapshotResult result = new SnapshotResult(file.toString(), documents, 0, bytes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lastId);
+        log.info("Exported {} workers to {} ({} bytes, {} workers/s).", result.getDocuments(), file,
+                result.getBytes(), Math.round(result.getDocumentsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Imports a snapshot written by {@link #exportWorkers} into the workers collection.
+     *
+     * @param file The snapshot file to read.
+     * @param parallelism Number of threads decoding and inserting batches.
+     * @return What was imported in this run.
+     * @throws IOException if the file cannot be read.
+     */
+    public SnapshotResult importWorkers(Path file, int parallelism) throws IOException {
+        long start = System.nanoTime();
+        if (Files.size(file) == 0) {
+            // Left by exports of an empty collection before they wrote an empty gzip member
+            log.info("Snapshot {} is empty, nothing to import.", file);
+            return new SnapshotResult(file.toString(), 0, 0, 0,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+        }
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong maxId = new AtomicLong(Long.MIN_VALUE);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Semaphore window = new Semaphore(parallelism * 2); // Batches read ahead of the decoders
+        ExecutorService decoders = Executors.newFixedThreadPool(parallelism);
+        long bytes;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            List<String> batch = new ArrayList<>(importBatchSize);
+            String line;
+            while ((line = reader.readLine()) != null && failure.get() == null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() == importBatchSize) {
+                    submit(batch, decoders, window, inserted, skipped, maxId, failure);
+                    batch = new ArrayList<>(importBatchSize);
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(batch, decoders, window, inserted, skipped, maxId, failure);
+            }
+            bytes = channel.position();
+        } finally {
+            decoders.shutdown();
+            awaitTermination(decoders);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        Integer lastId = maxId.get() == Long.MIN_VALUE ? null : (int) maxId.get();
+        if (lastId != null) {
+            // New registrations must not reuse imported IDs
+            mongoLimiter.run(() -> mongoOperations.upsert(new Query(Criteria.where("_id").is(WORKERS_SEQUENCE)),
+                    new Update().max("seq", (long) lastId), DatabaseSequence.class));
+        }
+
+        SnapshotResult result = new SnapshotResult(file.toString(), inserted.get(), skipped.get(), bytes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lastId);
+        log.info("Imported {} workers from {} ({} already present, {} workers/s).", result.getDocuments(), file,
+                result.getSkipped(), Math.round(result.getDocumentsPerSecond()));
+        return result;
+    }
+
+    private void submit(List<String> lines, ExecutorService decoders, Semaphore window, AtomicLong inserted,
+                        AtomicLong skipped, AtomicLong maxId, AtomicReference<RuntimeException> failure) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Import interrupted"));
+            return;
+        }
+        decoders.execute(() -> {
+            try {
+                List<Document> documents = new ArrayList<>(lines.size());
+                long batchMaxId = Long.MIN_VALUE;
+                for (String line : lines) {
+                    Document document = Document.parse(line);
+                    batchMaxId = Math.max(batchMaxId, ((Number) document.get("_id")).longValue());
+                    documents.add(document);
+                }
+                long batchMax = batchMaxId;
+                maxId.accumulateAndGet(batchMax, Math::max);
+                int batchInserted = insert(documents);
+                inserted.addAndGet(batchInserted);
+                skipped.addAndGet(documents.size() - batchInserted);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                window.release();
+            }
+        });
+    }
+
+    /**
+     * @return The number of documents inserted; the others already existed.
+     * @throws IllegalStateException if a document clashes with a different worker on another unique
+     *         index, e.g. the same phone number under a new ID; that worker was not imported.
+     */
+    private int insert(List<Document> documents) {
+        try {
+            mongoLimiter.run(() -> mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                    .insert(documents)
+                    .execute());
+            return documents.size();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                if (!error.getMessage().contains(ID_INDEX)) {
+                    throw new IllegalStateException("Worker " + documents.get(error.getIndex()).get("_id")
+                            + " conflicts with an existing worker: " + error.getMessage(), e);
+                }
+            }
+            return documents.size() - e.getErrors().size();
+        }
+    }
+
+    private GZIPOutputStream gzip(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        };
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path checkpointFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private static Properties readCheckpoint(Path checkpointFile) throws IOException {
+        Properties checkpoint = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            checkpoint.load(reader);
+        }
+        return checkpoint;
+    }
+
+    private static void writeCheckpoint(Path checkpointFile, Integer lastId, long offset) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("lastId", String.valueOf(lastId));
+        checkpoint.setProperty("offset", String.valueOf(offset));
+        // Write then rename, so a crash never leaves a half-written checkpoint
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, "Workers snapshot export checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,307 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.stats.HeatmapCell;
+import com.jfd.worker.mgmt.model.stats.WorkerCounts;
+import com.jfd.worker.mgmt.model.stats.WorkerHeatmap;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory worker counts by status and eKYC type, and worker density on a fixed
+ * latitude/longitude grid, for dashboards.
+ * <p>
+ * The counts are seeded from MongoDB at startup with two aggregations and then kept current by the
+ * register, update, status transition and delete paths of {@link WorkerService}. Every counter is a
+ * {@link LongAdder}, so concurrent writers update separate cells instead of contending on one value;
+ * reading a count sums a handful of cells, and the heatmap lists at most one entry per grid cell, so
+ * neither depends on the number of workers.
+ * <p>
+ * Writes made by other instances (or by a snapshot import) are not seen here, so the counts are
+ * recomputed every {@code reconcile-interval}, which bounds the drift. A write that lands while the
+ * aggregation runs may be missed until the next reconciliation. The aggregations always run on the
+ * primary: the result replaces the counters wholesale, so a lagging secondary would silently drop
+ * every write it had not replicated yet.
+ */
+@Slf4j
+@Component
+public class WorkerStatistics {
+
+    private static final String COLLECTION = "workers";
+
+    private final boolean enabled;
+    private final double cellSizeDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final MongoOperations mongoOperations;
+    private final ConcurrencyLimiter mongoLimiter;
+    private volatile Counts counts = new Counts(null);
+
+    /**
+     * Constructor for WorkerStatistics.
+     * @param enabled Whether the statistics are maintained at all.
+     * @param cellSizeDegrees Edge length of a heatmap cell in degrees.
+     * @param mongoOperations MongoDB operations on the primary, for seeding and reconciliation.
+     * @param mongoLimiter Bounds concurrent MongoDB calls.
+     */
+    public WorkerStatistics(@Value("${app.worker.stats.enabled:true}") boolean enabled,
+                            @Value("${app.worker.stats.heatmap.cell-size-degrees:0.5}") double cellSizeDegrees,
+                            MongoOperations mongoOperations,
+                            @Qualifier("mongoConcurrencyLimiter") ConcurrencyLimiter mongoLimiter) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("app.worker.stats.heatmap.cell-size-degrees must be in (0, 90]");
+        }
+        this.enabled = enabled;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+        this.mongoOperations = mongoOperations;
+        this.mongoLimiter = mongoLimiter;
+    }
+
+    /**
+     * @return Whether the statistics are maintained at all.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Whether the statistics are enabled and seeded, i.e. may be served.
+     */
+    public boolean isReady() {
+        return enabled && counts.reconciledAt != null;
+    }
+
+    /**
+     * Counts a newly registered worker.
+     * @param worker The saved worker.
+     */
+    public void added(WorkerInformation worker) {
+        if (enabled) {
+            count(counts, worker.getStatus(), worker.getEkycId(), worker.getLatitude(), worker.getLongitude(), 1, true);
+        }
+    }
+
+    /**
+     * Stops counting a deleted worker.
+     * @param worker The worker as it was before deletion (status, eKYC type and coordinates are enough).
+     */
+    public void removed(WorkerInformation worker) {
+        if (enabled) {
+            count(counts, worker.getStatus(), worker.getEkycId(), worker.getLatitude(), worker.getLongitude(), -1, true);
+        }
+    }
+
+    /**
+     * Moves an updated worker between counters.
+     * @param before The worker before the update.
+     * @param after The worker after the update.
+     */
+    public void changed(WorkerInformation before, WorkerInformation after) {
+        if (!enabled) {
+            return;
+        }
+        Counts current = counts;
+        count(current, before.getStatus(), before.getEkycId(), before.getLatitude(), before.getLongitude(), -1, false);
+        count(current, after.getStatus(), after.getEkycId(), after.getLatitude(), after.getLongitude(), 1, false);
+    }
+
+    /**
+     * Moves a worker whose status alone changed.
+     * @param from The previous status.
+     * @param to The new status.
+     */
+    public void statusChanged(WorkerStatus from, WorkerStatus to) {
+        if (!enabled || from == to) {
+            return;
+        }
+        Counts current = counts;
+        if (from != null) {
+            current.byStatus[from.ordinal()].decrement();
+        }
+        if (to != null) {
+            current.byStatus[to.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @return The current counts.
+     */
+    public WorkerCounts counts() {
+        Counts current = counts;
+        Map<WorkerStatus, Long> byStatus = new EnumMap<>(WorkerStatus.class);
+        for (WorkerStatus status : WorkerStatus.values()) {
+            byStatus.put(status, current.byStatus[status.ordinal()].sum());
+        }
+        Map<EkycId, Long> byEkycId = new EnumMap<>(EkycId.class);
+        for (EkycId ekycId : EkycId.values()) {
+            byEkycId.put(ekycId, current.byEkycId[ekycId.ordinal()].sum());
+        }
+        return new WorkerCounts(current.total.sum(), byStatus, byEkycId, current.reconciledAt);
+    }
+
+    /**
+     * @return The non-empty heatmap cells.
+     */
+    public WorkerHeatmap heatmap() {
+        Counts current = counts;
+        List<HeatmapCell> cells = new ArrayList<>(current.cells.size());
+        current.cells.forEach((key, workers) -> {
+            long count = workers.sum();
+            if (count > 0) {
+                cells.add(new HeatmapCell((key / lonCells) * cellSizeDegrees - 90,
+                        (key % lonCells) * cellSizeDegrees - 180, count));
+            }
+        });
+        return new WorkerHeatmap(cellSizeDegrees, cells, current.reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recomputes all counters from MongoDB and swaps them in.
+     */
+    @Scheduled(initialDelayString = "${app.worker.stats.reconcile-interval:PT10M}",
+            fixedDelayString = "${app.worker.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Counts fresh = new Counts(Instant.now());
+
+        // Counts by status and eKYC type in one pass
+        List<Document> groups = aggregate(
+                new Document("$group", new Document("_id",
+                        new Document("status", "$status").append("ekycId", "$ekycId"))
+                        .append("workers", new Document("$sum", 1))));
+        for (Document group : groups) {
+            Document key = group.get("_id", Document.class);
+            long workers = ((Number) group.get("workers")).longValue();
+            fresh.total.add(workers);
+            WorkerStatus status = parse(WorkerStatus.class, key.getString("status"));
+            if (status != null) {
+                fresh.byStatus[status.ordinal()].add(workers);
+            }
+            EkycId ekycId = parse(EkycId.class, key.getString("ekycId"));
+            if (ekycId != null) {
+                fresh.byEkycId[ekycId.ordinal()].add(workers);
+            }
+        }
+
+        // Heatmap cells, computed server-side with the same cell arithmetic as cellKey
+        List<Document> cells = aggregate(
+                new Document("$match", new Document("latitude", new Document("$ne", null))
+                        .append("longitude", new Document("$ne", null))),
+                new Document("$group", new Document("_id",
+                        new Document("lat", cellIndex("$latitude", 90)).append("lon", cellIndex("$longitude", 180)))
+                        .append("workers", new Document("$sum", 1))));
+        for (Document cell : cells) {
+            Document key = cell.get("_id", Document.class);
+            long cellKey = cellKey(((Number) key.get("lat")).intValue(), ((Number) key.get("lon")).intValue());
+            fresh.cells.computeIfAbsent(cellKey, k -> new LongAdder()).add(((Number) cell.get("workers")).longValue());
+        }
+
+        counts = fresh;
+        log.info("Worker statistics reconciled: {} workers in {} heatmap cells in {} ms.", fresh.total.sum(),
+                fresh.cells.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Document> aggregate(Document... stages) {
+        List<AggregationOperation> operations = new ArrayList<>(stages.length);
+        for (Document stage : stages) {
+            operations.add(context -> stage);
+        }
+        return mongoLimiter.call(() -> mongoOperations.aggregate(
+                Aggregation.newAggregation(operations), COLLECTION, Document.class).getMappedResults());
+    }
+
+    private Document cellIndex(String field, int offset) {
+        return new Document("$floor", new Document("$divide",
+                List.of(new Document("$add", List.of(field, offset)), cellSizeDegrees)));
+    }
+
+    private void count(Counts target, WorkerStatus status, EkycId ekycId, Double latitude, Double longitude,
+                       int delta, boolean total) {
+        if (total) {
+            target.total.add(delta);
+        }
+        if (status != null) {
+            target.byStatus[status.ordinal()].add(delta);
+        }
+        if (ekycId != null) {
+            target.byEkycId[ekycId.ordinal()].add(delta);
+        }
+        if (latitude != null && longitude != null) {
+            long key = cellKey((int) Math.floor((latitude + 90) / cellSizeDegrees),
+                    (int) Math.floor((longitude + 180) / cellSizeDegrees));
+            target.cells.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private long cellKey(int latIndex, int lonIndex) {
+        return (long) Math.min(latCells - 1, Math.max(0, latIndex)) * lonCells + Math.floorMod(lonIndex, lonCells);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One generation of counters; replaced as a whole by each reconciliation.
+     */
+    private static final class Counts {
+
+        private final Instant reconciledAt;
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] byStatus = adders(WorkerStatus.values().length);
+        private final LongAdder[] byEkycId = adders(EkycId.values().length);
+        private final ConcurrentMap<Long, LongAdder> cells = new ConcurrentHashMap<>();
+
+        private Counts(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
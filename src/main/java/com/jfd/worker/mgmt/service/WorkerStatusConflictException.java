@@ -0,0 +1,11 @@
+package com.jfd.worker.mgmt.service;
+
+/**
+ * Thrown when a worker update asks for a status the worker's current status cannot move to.
+ */
+public class WorkerStatusConflictException extends RuntimeException {
+
+    public WorkerStatusConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.jfd.worker.mgmt.service;
+
+/**
+ * Thrown when a worker update was based on a version that is no longer current.
+ */
+public class WorkerVersionConflictException extends RuntimeException {
+
+    public WorkerVersionConflictException(String message) {
+        super(message);
+    }
+}
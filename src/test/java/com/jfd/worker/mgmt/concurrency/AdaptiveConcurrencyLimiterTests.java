@@ -0,0 +1,86 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestsOverTheLimitAreShedImmediately() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 2, 1, 10, meterRegistry);
+
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        limiter.tryAcquire().ifPresent(permits::add);
+        limiter.tryAcquire().ifPresent(permits::add);
+        Optional<AdaptiveConcurrencyLimiter.Permit> third = limiter.tryAcquire();
+
+        assertEquals(2, permits.size());
+        assertTrue(third.isEmpty());
+        assertEquals(1, limiter.getRejected());
+        assertEquals(1.0, meterRegistry.get("http.admission.rejected").tag("class", "write").counter().count());
+
+        permits.get(0).ignore();
+        permits.get(0).ignore(); // Released once only
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire().isPresent());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteadyUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 5, 200, meterRegistry);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.update(10 * MILLIS, limiter.getLimit(), false);
+        }
+
+        assertEquals(200, limiter.getLimit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 20, 5, 200, meterRegistry);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.update(10 * MILLIS, 1, false);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAboveBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 100, 5, 100, meterRegistry);
+        for (int i = 0; i < 500; i++) {
+            limiter.update(10 * MILLIS, 100, false);
+        }
+
+        // Requests now queue behind a slow backend: latency ten times the baseline
+        for (int i = 0; i < 50; i++) {
+            limiter.update(100 * MILLIS, limiter.getLimit(), false);
+        }
+
+        assertTrue(limiter.getLimit() < 50, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    void droppedRequestsBackOffToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 50, 5, 100, meterRegistry);
+
+        for (int i = 0; i < 500; i++) {
+            limiter.update(0, 50, true);
+        }
+
+        assertEquals(5, limiter.getLimit());
+    }
+}
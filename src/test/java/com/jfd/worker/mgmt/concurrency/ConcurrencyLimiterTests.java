@@ -0,0 +1,45 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter("mongo", 1, Duration.ofMillis(10), meterRegistry);
+
+    @Test
+    void streamHoldsItsPermitUntilClosed() {
+        Stream<Integer> cursor = limiter.stream(() -> Stream.of(1, 2, 3));
+
+        assertEquals(1.0, inUse());
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.call(() -> 0));
+
+        assertEquals(6, cursor.mapToInt(Integer::intValue).sum());
+        assertEquals(1.0, inUse()); // Still open after iterating
+        cursor.close();
+        cursor.close(); // Released once only
+
+        assertEquals(0.0, inUse());
+        assertEquals(1, limiter.call(() -> 1));
+    }
+
+    @Test
+    void permitIsReleasedWhenTheStreamCannotBeOpened() {
+        assertThrows(IllegalStateException.class, () -> limiter.stream(() -> {
+            throw new IllegalStateException("connection refused");
+        }));
+
+        assertEquals(0.0, inUse());
+    }
+
+    private double inUse() {
+        return meterRegistry.get("resource.limiter.in.use").tag("resource", "mongo").gauge().value();
+    }
+}
@@ -0,0 +1,56 @@
+package com.jfd.worker.mgmt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketRateLimiterTests {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    // Bursts of 2, then 10 requests per second
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 10, 100, Duration.ofMinutes(10),
+            meterRegistry, now::get);
+
+    @Test
+    void emptyBucketRefillsAtTheConfiguredRate() {
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(100 * MILLIS, limiter.tryAcquire("10.0.0.1"), 1.0); // One token takes 100 ms
+
+        now.addAndGet(50 * MILLIS);
+        assertEquals(50 * MILLIS, limiter.tryAcquire("10.0.0.1"), 1.0);
+
+        now.addAndGet(60 * MILLIS);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(2, limiter.getRateLimited());
+        assertEquals(2.0, meterRegistry.get("http.admission.rate.limited").counter().count());
+    }
+
+    @Test
+    void refillStopsAtTheCapacity() {
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(100 * MILLIS, limiter.tryAcquire("10.0.0.1"), 1.0);
+    }
+
+    @Test
+    void clientsHaveTheirOwnBuckets() {
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+        assertEquals(2, limiter.getClients());
+    }
+}
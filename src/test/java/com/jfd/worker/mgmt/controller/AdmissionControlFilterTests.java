@@ -0,0 +1,143 @@
+package com.jfd.worker.mgmt.controller;
+
+import com.jfd.worker.mgmt.concurrency.AdaptiveConcurrencyLimiter;
+import com.jfd.worker.mgmt.concurrency.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter("read", 20, 5, 200, meterRegistry);
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(readLimiter,
+            new AdaptiveConcurrencyLimiter("write", 20, 5, 200, meterRegistry), null, null, Duration.ofSeconds(3));
+
+    @Test
+    void requestsOverTheLimitAreShedWithRetryAfter() throws Exception {
+        List<AdaptiveConcurrencyLimiter.Permit> held = new ArrayList<>();
+        while (readLimiter.getInFlight() < readLimiter.getLimit()) {
+            readLimiter.tryAcquire().ifPresent(held::add);
+        }
+        AtomicBoolean reached = new AtomicBoolean();
+
+        MockHttpServletResponse response = get(filter, request("10.0.0.1"), (request, r) -> reached.set(true));
+
+        assertFalse(reached.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\":\"Server is at capacity\"}", response.getContentAsString());
+        assertEquals(1, readLimiter.getRejected());
+        held.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+    }
+
+    @Test
+    void clientsOverTheirRateGetTooManyRequestsUntilTheirNextToken() throws Exception {
+        // One request, then one every two seconds
+        AdmissionControlFilter rateLimited = rateLimitedFilter(null);
+
+        assertEquals(HttpStatus.OK.value(), get(rateLimited, request("10.0.0.1"), (request, response) -> { }).getStatus());
+        MockHttpServletResponse response = get(rateLimited, request("10.0.0.1"), (request, r) -> { });
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\":\"Rate limit exceeded\"}", response.getContentAsString());
+        assertEquals(HttpStatus.OK.value(), get(rateLimited, request("10.0.0.2"), (request, r) -> { }).getStatus());
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @Test
+    void clientIdHeaderIsOnlyTrustedWhenConfigured() throws Exception {
+        // By default a caller cannot get a fresh bucket by changing the header
+        AdmissionControlFilter byAddress = rateLimitedFilter(null);
+        get(byAddress, request("10.0.0.1", "a"), (request, response) -> { });
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(),
+                get(byAddress, request("10.0.0.1", "b"), (request, response) -> { }).getStatus());
+
+        AdmissionControlFilter byHeader = rateLimitedFilter("X-Client-Id");
+        get(byHeader, request("10.0.0.1", "a"), (request, response) -> { });
+        assertEquals(HttpStatus.OK.value(), get(byHeader, request("10.0.0.1", "b"), (request, response) -> { }).getStatus());
+    }
+
+    @Test
+    void onlyTheApiIsFiltered() throws Exception {
+        List<AdaptiveConcurrencyLimiter.Permit> held = new ArrayList<>();
+        while (readLimiter.getInFlight() < readLimiter.getLimit()) {
+            readLimiter.tryAcquire().ifPresent(held::add);
+        }
+
+        for (String uri : List.of("/actuator/health", "/actuator/health/readiness", "/actuator/prometheus", "/swagger-ui.html")) {
+            AtomicBoolean reached = new AtomicBoolean();
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+            MockHttpServletResponse response = get(filter, request, (r, s) -> reached.set(true));
+            assertTrue(reached.get(), uri);
+            assertEquals(HttpStatus.OK.value(), response.getStatus(), uri);
+        }
+        assertEquals(0, readLimiter.getRejected());
+        held.forEach(AdaptiveConcurrencyLimiter.Permit::ignore);
+    }
+
+    @Test
+    void unavailableResponsesDoNotShrinkTheLimit() throws Exception {
+        // E.g. statistics that are not seeded yet: nothing is saturated
+        for (int i = 0; i < 10; i++) {
+            get((request, response) -> ((MockHttpServletResponse) response).setStatus(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        }
+
+        assertEquals(20, readLimiter.getLimit());
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @Test
+    void saturatedBackendShrinksTheLimit() throws Exception {
+        get((request, response) -> {
+            request.setAttribute(AdmissionControlFilter.BACKEND_SATURATED_ATTRIBUTE, true);
+            ((MockHttpServletResponse) response).setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        });
+
+        assertTrue(readLimiter.getLimit() < 20);
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    private void get(FilterChain chain) throws Exception {
+        get(filter, request("10.0.0.1"), chain);
+    }
+
+    private static MockHttpServletResponse get(AdmissionControlFilter filter, MockHttpServletRequest request,
+                                               FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private AdmissionControlFilter rateLimitedFilter(String clientIdHeader) {
+        return new AdmissionControlFilter(readLimiter, new AdaptiveConcurrencyLimiter("write", 20, 5, 200, meterRegistry),
+                new TokenBucketRateLimiter(1, 0.5, 100, Duration.ofMinutes(10), meterRegistry), clientIdHeader,
+                Duration.ofSeconds(3));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/worker/stats");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = request(remoteAddress);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+}
@@ -0,0 +1,374 @@
+package com.jfd.worker.mgmt.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.BulkRegistrationResult;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerPage;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.registration.WorkerSummary;
+import com.jfd.worker.mgmt.model.registration.WorkerSummaryPage;
+import com.jfd.worker.mgmt.service.IdempotencyService;
+import com.jfd.worker.mgmt.service.WorkerLocationService;
+import com.jfd.worker.mgmt.service.WorkerService;
+import com.jfd.worker.mgmt.service.WorkerStatusConflictException;
+import com.jfd.worker.mgmt.service.WorkerVersionConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WorkerControllerTests {
+
+    private final WorkerService workerService = mock(WorkerService.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new WorkerController(workerService, mock(WorkerLocationService.class),
+                        mock(IdempotencyService.class), objectMapper))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void patchPassesOnlyTheGivenFields() throws Exception {
+        WorkerInformation updated = new WorkerInformation();
+        updated.setId(7);
+        updated.setName("Asha K");
+        updated.setStatus(WorkerStatus.ON_DUTY);
+        updated.setVersion(4L);
+        when(workerService.patchWorker(eq(7), any(WorkerPatch.class))).thenReturn(updated);
+
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Asha K\", \"status\": \"ON_DUTY\", \"version\": 3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Asha K"))
+                .andExpect(jsonPath("$.version").value(4));
+
+        ArgumentCaptor<WorkerPatch> patch = ArgumentCaptor.forClass(WorkerPatch.class);
+        verify(workerService).patchWorker(eq(7), patch.capture());
+        assertEquals("Asha K", patch.getValue().getName());
+        assertEquals(WorkerStatus.ON_DUTY, patch.getValue().getStatus());
+        assertEquals(3L, patch.getValue().getVersion());
+        assertNull(patch.getValue().getAddress());
+        assertNull(patch.getValue().getAge());
+    }
+
+    @Test
+    void patchOfAnOutdatedVersionReturnsConflict() throws Exception {
+        when(workerService.patchWorker(eq(7), any(WorkerPatch.class)))
+                .thenThrow(new WorkerVersionConflictException("Worker with ID 7 is no longer at version 3"));
+
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Asha K\", \"version\": 3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Worker with ID 7 is no longer at version 3"));
+    }
+
+    @Test
+    void patchToADisallowedStatusReturnsConflict() throws Exception {
+        when(workerService.patchWorker(eq(7), any(WorkerPatch.class)))
+                .thenThrow(new WorkerStatusConflictException("Worker with ID 7 cannot move from UNREGISTERED to ON_DUTY"));
+
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"ON_DUTY\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Worker with ID 7 cannot move from UNREGISTERED to ON_DUTY"));
+    }
+
+    @Test
+    void invalidPatchIsRejectedBeforeTheService() throws Exception {
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 12}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.age").value("Age must be at least 18"));
+
+        verifyNoInteractions(workerService);
+    }
+
+    @Test
+    void listReturnsThePageAndItsContinuation() throws Exception {
+        when(workerService.getWorkers(WorkerStatus.ON_DUTY, EkycId.PAN, "dzE6Ng", 2, null))
+                .thenReturn(new WorkerPage(List.of(listed(7, "Asha"), listed(8, "Ravi")), "dzE6OA"));
+
+        mockMvc.perform(get("/api/worker/all")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("status", "ON_DUTY")
+                        .param("ekycId", "PAN")
+                        .param("continuation", "dzE6Ng")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workers", hasSize(2)))
+                .andExpect(jsonPath("$.workers[1].id").value(8))
+                .andExpect(jsonPath("$.continuation").value("dzE6OA"));
+    }
+
+    @Test
+    void malformedListParametersAreBadRequests() throws Exception {
+        when(workerService.getWorkers(isNull(), isNull(), eq("not-a-token"), eq(100), isNull()))
+                .thenThrow(new IllegalArgumentException("Invalid continuation token"));
+
+        mockMvc.perform(get("/api/worker/all").accept(MediaType.APPLICATION_JSON).param("continuation", "not-a-token"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid continuation token"));
+        mockMvc.perform(get("/api/worker/all").accept(MediaType.APPLICATION_JSON).param("limit", "ten"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for limit: ten"));
+        mockMvc.perform(get("/api/worker/all").accept(MediaType.APPLICATION_JSON).param("status", "ASLEEP"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonStreamWritesOneLinePerWorkerAndClosesTheCursor() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimiter mongoLimiter = new ConcurrencyLimiter("mongo", 1, Duration.ofMillis(10), meterRegistry);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(workerService.streamWorkers(WorkerStatus.ON_DUTY, null, null)).thenAnswer(invocation -> mongoLimiter.stream(
+                () -> Stream.of(listed(1, "Asha"), listed(2, "Ravi"), listed(3, "Meena")).onClose(() -> closed.set(true))));
+
+        MvcResult started = mockMvc.perform(get("/api/worker/all")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("status", "ON_DUTY"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals(List.of(1, 2, 3), lines.stream()
+                .map(line -> readWorker(line).getId()).toList());
+        assertTrue(closed.get());
+        assertEquals(0.0, meterRegistry.get("resource.limiter.in.use").tag("resource", "mongo").gauge().value());
+    }
+
+    @Test
+    void searchPassesTheFiltersAndReturnsSummariesWithTheContinuation() throws Exception {
+        WorkerSummary summary = new WorkerSummary();
+        summary.setId(7);
+        summary.setName("Asha");
+        summary.setPhoneNumber("+91 98765 43210");
+        summary.setEkycId(EkycId.AADHAR);
+        summary.setLatitude(12.9716);
+        summary.setLongitude(77.5946);
+        summary.setStatus(WorkerStatus.ON_DUTY);
+        summary.setVersion(3L);
+        when(workerService.searchWorkers(WorkerStatus.ON_DUTY, EkycId.AADHAR, null, "dzE6Ng", 1, 42L))
+                .thenReturn(new WorkerSummaryPage(List.of(summary), "dzE6Nw"));
+
+        mockMvc.perform(get("/api/worker/search")
+                        .param("status", "ON_DUTY")
+                        .param("ekycId", "AADHAR")
+                        .param("continuation", "dzE6Ng")
+                        .param("limit", "1")
+                        .header("Read-After", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.continuation").value("dzE6Nw"))
+                .andExpect(jsonPath("$.workers[0].id").value(7))
+                .andExpect(jsonPath("$.workers[0]", aMapWithSize(8)))
+                .andExpect(jsonPath("$.workers[0].ekycData").doesNotExist())
+                .andExpect(jsonPath("$.workers[0].address").doesNotExist());
+    }
+
+    @Test
+    void lastSearchPageHasNoContinuation() throws Exception {
+        when(workerService.searchWorkers(isNull(), isNull(), eq("+91 98765 43210"), isNull(), eq(100), isNull()))
+                .thenReturn(new WorkerSummaryPage(List.of(), null));
+
+        mockMvc.perform(get("/api/worker/search").param("phoneNumber", "+91 98765 43210"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workers").isEmpty())
+                .andExpect(jsonPath("$.continuation").doesNotExist());
+    }
+
+    @Test
+    void duplicatePhoneNumberIsReportedAsSuch() throws Exception {
+        when(workerService.patchWorker(eq(7), any(WorkerPatch.class))).thenThrow(duplicateKey(
+                "E11000 duplicate key error collection: worker.workers index: phoneNumberKey_unique dup key: { phoneNumberKey: \"919876543210\" }"));
+
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": \"+91 98765 43210\", \"version\": 3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("A worker with this phone number is already registered"));
+    }
+
+    @Test
+    void otherDuplicateKeysAreNotReportedAsAPhoneNumber() throws Exception {
+        when(workerService.patchWorker(eq(7), any(WorkerPatch.class))).thenThrow(duplicateKey(
+                "E11000 duplicate key error collection: worker.workers index: _id_ dup key: { _id: 7 }"));
+
+        mockMvc.perform(patch("/api/worker/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Asha K\", \"version\": 3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("A worker with the same unique key already exists"));
+    }
+
+    private static DuplicateKeyException duplicateKey(String serverMessage) {
+        return new DuplicateKeyException("Write operation error on server", new IllegalStateException(serverMessage));
+    }
+
+    @Test
+    void bulkRegistrationReportsEveryItemInRequestOrder() throws Exception {
+        List<Integer> batchSizes = stubBulkRegistration();
+
+        mockMvc.perform(put("/api/worker/registration/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + worker(0) + ", {\"name\": \"Asha\", \"age\": \"old\"}, "
+                                + worker(2).replace("\"age\": 20", "\"age\": 12") + ", " + worker(3) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(18))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].errors.body", startsWith("Malformed worker")))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].errors.age").value("Age must be at least 18"))
+                .andExpect(jsonPath("$[3].index").value(3))
+                .andExpect(jsonPath("$[3].id").value(21));
+
+        assertEquals(List.of(3), batchSizes); // The malformed item never reaches the service
+    }
+
+    @Test
+    void ndjsonBulkRegistrationReportsABadLineWithoutFailingTheOthers() throws Exception {
+        stubBulkRegistration();
+
+        mockMvc.perform(put("/api/worker/registration/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(worker(0) + "\n{\"name\": \"Asha\",\n\n" + worker(2) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(18))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].errors.body", startsWith("Malformed JSON")))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].id").value(20));
+    }
+
+    @Test
+    void bulkIndexesSurviveTheBatchBoundary() throws Exception {
+        List<Integer> batchSizes = stubBulkRegistration();
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1003; i++) {
+            body.append(i == 0 ? "" : ", ").append(i == 5 || i == 1001 ? "{\"age\": \"old\"}" : worker(i));
+        }
+
+        String response = mockMvc.perform(put("/api/worker/registration/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.append("]").toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // The first batch fills at item 1000 (one item was malformed), the rest goes in a second one
+        assertEquals(List.of(1000, 1), batchSizes);
+        BulkRegistrationResult[] results = objectMapper.readValue(response, BulkRegistrationResult[].class);
+        assertEquals(1003, results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(i, results[i].getIndex());
+            if (i == 5 || i == 1001) {
+                assertEquals(BulkRegistrationResult.Status.INVALID, results[i].getStatus());
+            } else {
+                assertEquals(18 + i, results[i].getId()); // Each ID belongs to the item it was reported for
+            }
+        }
+    }
+
+    private WorkerInformation readWorker(String json) {
+        try {
+            return objectMapper.readValue(json, WorkerInformation.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Not a worker: " + json, e);
+        }
+    }
+
+    private static WorkerInformation listed(int id, String name) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(id);
+        worker.setName(name);
+        worker.setStatus(WorkerStatus.ON_DUTY);
+        return worker;
+    }
+
+    /**
+     * Stubs bulk registration to create every adult worker with its age as ID, and reject the others.
+     * @return The sizes of the batches the service was called with.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Integer> stubBulkRegistration() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(workerService.registerWorkers(anyList())).thenAnswer(invocation -> {
+            List<WorkerInformation> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            List<BulkRegistrationResult> results = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(batch.get(i).getAge() < 18
+                        ? BulkRegistrationResult.invalid(i, Map.of("age", "Age must be at least 18"))
+                        : BulkRegistrationResult.created(i, batch.get(i).getAge()));
+            }
+            return results;
+        });
+        return batchSizes;
+    }
+
+    private static String worker(int index) {
+        return "{\"name\": \"Worker " + index + "\", \"age\": " + (18 + index) + ", \"phoneNumber\": \"+91 98765 "
+                + String.format("%05d", index) + "\", \"ekycId\": \"AADHAR\", \"ekycData\": \"1234-5678-9012\", "
+                + "\"address\": \"12, MG Road, Bengaluru 560001\", \"latitude\": 12.9716, \"longitude\": 77.5946, "
+                + "\"status\": \"REGISTERED\"}";
+    }
+}
@@ -0,0 +1,109 @@
+package com.jfd.worker.mgmt.event;
+
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerEventCodecTests {
+
+    private final WorkerEventSerializer binary = new WorkerEventSerializer(WorkerEventFormat.BINARY);
+    private final WorkerEventSerializer json = new WorkerEventSerializer(WorkerEventFormat.JSON);
+    private final WorkerEventDeserializer deserializer = new WorkerEventDeserializer();
+
+    @Test
+    void binaryRoundTripKeepsEveryField() {
+        WorkerInformation worker = worker(123_456, "Râjésh कुमार 😀");
+
+        byte[] encoded = binary.serialize("workers", worker);
+
+        assertTrue(WorkerEventCodec.isBinary(encoded));
+        assertEquals(worker, deserializer.deserialize("workers", encoded));
+    }
+
+    @Test
+    void binaryRoundTripKeepsNulls() {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setTimestamp(null);
+        worker.setAge(-3);
+
+        assertEquals(worker, deserializer.deserialize("workers", binary.serialize("workers", worker)));
+    }
+
+    @Test
+    void deserializerStillReadsJson() {
+        WorkerInformation worker = worker(7, "Asha");
+
+        byte[] encoded = json.serialize("workers", worker);
+
+        assertFalse(WorkerEventCodec.isBinary(encoded));
+        assertEquals(worker, deserializer.deserialize("workers", encoded));
+    }
+
+    @Test
+    void formatCanBeSetThroughProducerProperties() {
+        WorkerEventSerializer configured = new WorkerEventSerializer();
+        configured.configure(java.util.Map.of(WorkerEventSerializer.FORMAT_CONFIG, "json"), false);
+
+        assertEquals(WorkerEventFormat.JSON, configured.getFormat());
+    }
+
+    @Test
+    void toleratesTrailingFieldsAndRejectsNewerVersions() {
+        WorkerInformation worker = worker(42, "Ravi");
+        byte[] encoded = binary.serialize("workers", worker);
+
+        byte[] withTrailingField = Arrays.copyOf(encoded, encoded.length + 3);
+        assertEquals(worker, WorkerEventCodec.decode(withTrailingField));
+
+        byte[] newerVersion = encoded.clone();
+        newerVersion[1] = (byte) (WorkerEventCodec.VERSION + 1);
+        assertThrows(SerializationException.class, () -> WorkerEventCodec.decode(newerVersion));
+
+        assertThrows(SerializationException.class,
+                () -> WorkerEventCodec.decode(Arrays.copyOf(encoded, encoded.length / 2)));
+        assertNull(deserializer.deserialize("workers", null));
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() {
+        Random random = new Random(7);
+        long binaryBytes = 0;
+        long jsonBytes = 0;
+        for (int i = 0; i < 1_000; i++) {
+            WorkerInformation worker = worker(random.nextInt(10_000_000), "Worker " + random.nextInt(100_000));
+            binaryBytes += binary.serialize("workers", worker).length;
+            jsonBytes += json.serialize("workers", worker).length;
+        }
+
+        assertTrue(binaryBytes * 2 < jsonBytes, "binary " + binaryBytes + " bytes vs json " + jsonBytes);
+    }
+
+    private static WorkerInformation worker(int id, String name) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(id);
+        worker.setName(name);
+        worker.setAge(29);
+        worker.setPhoneNumber("+91 98765 43210");
+        worker.setEkycId(EkycId.AADHAR);
+        worker.setEkycData("1234-5678-9012");
+        worker.setAddress("12, MG Road, Bengaluru 560001");
+        worker.setLatitude(12.9716);
+        worker.setLongitude(77.5946);
+        worker.setStatus(WorkerStatus.ON_DUTY);
+        worker.setTimestamp(LocalDateTime.of(2025, 6, 1, 9, 30, 15, 123_456_789));
+        worker.setVersion(3L);
+        return worker;
+    }
+}
@@ -0,0 +1,34 @@
+package com.jfd.worker.mgmt.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StageMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StageMetrics stageMetrics = new StageMetrics(meterRegistry);
+
+    @Test
+    void recordsEachStageWithItsOutcome() {
+        assertEquals(42, stageMetrics.record("register", "sequence", () -> 42));
+        stageMetrics.run("register", "sequence", () -> { });
+        assertThrows(IllegalStateException.class, () -> stageMetrics.run("register", "save", () -> {
+            throw new IllegalStateException("write failed");
+        }));
+
+        assertEquals(2, timer("register", "sequence", "success").count());
+        assertEquals(1, timer("register", "save", "error").count());
+        assertNull(meterRegistry.find(StageMetrics.STAGE_TIMER).tag("stage", "save").tag("outcome", "success").timer());
+    }
+
+    private Timer timer(String operation, String stage, String outcome) {
+        return meterRegistry.get(StageMetrics.STAGE_TIMER)
+                .tag("operation", operation).tag("stage", stage).tag("outcome", outcome)
+                .timer();
+    }
+}
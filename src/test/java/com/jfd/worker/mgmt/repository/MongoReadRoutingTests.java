@@ -0,0 +1,86 @@
+package com.jfd.worker.mgmt.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+class MongoReadRoutingTests {
+
+    // Stand-ins for the primary and the secondaryPreferred side of a replica set
+    private final MongoOperations primary = mock(MongoOperations.class);
+    private final MongoOperations secondary = mock(MongoOperations.class);
+    private SimpleMeterRegistry meterRegistry;
+    private MongoReadRouting routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routing = routing(true);
+    }
+
+    @Test
+    void routedOperationsGoToSecondaries() {
+        assertSame(secondary, routing.forRead("list", null));
+        assertSame(secondary, routing.forRead("search", null));
+        assertEquals(2, routed("secondary", "routed"));
+    }
+
+    @Test
+    void otherOperationsStayOnPrimary() {
+        assertSame(primary, routing.forRead("lookup", null));
+        assertEquals(1, routed("primary", "not-routed"));
+    }
+
+    @Test
+    void recentWriteTokenReadsFromPrimary() {
+        long writtenAt = Long.parseLong(MongoReadRouting.readAfterToken());
+
+        assertSame(primary, routing.forRead("list", writtenAt));
+        assertEquals(1, routed("primary", "read-your-writes"));
+    }
+
+    @Test
+    void expiredWriteTokenReadsFromSecondaries() {
+        long writtenAt = System.currentTimeMillis() - Duration.ofSeconds(101).toMillis();
+
+        assertSame(secondary, routing.forRead("list", writtenAt));
+    }
+
+    @Test
+    void writeTokenFromTheFutureIsIgnored() {
+        long slightlyAhead = System.currentTimeMillis() + Duration.ofSeconds(2).toMillis(); // Another instance's clock
+
+        assertSame(primary, routing.forRead("list", slightlyAhead));
+        assertSame(secondary, routing.forRead("list", System.currentTimeMillis() + Duration.ofMinutes(1).toMillis()));
+        assertSame(secondary, routing.forRead("list", Long.MAX_VALUE));
+        assertSame(secondary, routing.forRead("list", Long.MIN_VALUE));
+        assertEquals(1, routed("primary", "read-your-writes"));
+    }
+
+    @Test
+    void disabledRoutingReadsFromPrimary() {
+        MongoReadRouting disabled = routing(false);
+
+        assertSame(primary, disabled.forRead("list", null));
+        assertEquals(1, routed("primary", "disabled"));
+    }
+
+    private MongoReadRouting routing(boolean enabled) {
+        return new MongoReadRouting(enabled, Duration.ofSeconds(100), Set.of("list", "search", "stream"),
+                primary, secondary, meterRegistry);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("mongo.read.routing").tag("target", target).tag("reason", reason).counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+}
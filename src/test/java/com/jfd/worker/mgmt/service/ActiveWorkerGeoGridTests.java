@@ -0,0 +1,117 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.model.registration.NearbyWorker;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActiveWorkerGeoGridTests {
+
+    private static final int WORKERS = 20_000;
+    private static final int QUERIES = 200;
+
+    private final Random random = new Random(42);
+    private final List<WorkerInformation> onDuty = new ArrayList<>();
+    private ActiveWorkerGeoGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new ActiveWorkerGeoGrid(true, 0.1, Integer.MAX_VALUE);
+        for (int id = 1; id <= WORKERS; id++) {
+            // Most workers clustered around a few cities, the rest spread over the globe
+            double latitude;
+            double longitude;
+            if (id % 10 == 0) {
+                latitude = random.nextDouble() * 180 - 90;
+                longitude = random.nextDouble() * 360 - 180;
+            } else {
+                double[] city = CITIES[id % CITIES.length];
+                latitude = city[0] + random.nextGaussian() * 0.2;
+                longitude = city[1] + random.nextGaussian() * 0.2;
+            }
+            WorkerStatus status = id % 3 == 0 ? WorkerStatus.REGISTERED : WorkerStatus.ON_DUTY;
+            WorkerInformation worker = worker(id, latitude, longitude, status);
+            grid.update(worker);
+            if (status == WorkerStatus.ON_DUTY) {
+                onDuty.add(worker);
+            }
+        }
+        grid.markReady();
+    }
+
+    @Test
+    void keepsOnlyOnDutyWorkersAndFollowsMovesAndRemovals() {
+        assertEquals(onDuty.size(), grid.size());
+
+        WorkerInformation moved = worker(onDuty.get(0).getId(), -33.9, 151.2, WorkerStatus.ON_DUTY);
+        grid.update(moved);
+        assertEquals(moved.getId(), grid.nearest(-33.9, 151.2, 1, 1.0).get(0).getWorker().getId());
+
+        grid.update(worker(moved.getId(), -33.9, 151.2, WorkerStatus.REGULAR));
+        assertTrue(grid.nearest(-33.9, 151.2, 1, 0.001).isEmpty());
+
+        grid.remove(onDuty.get(1).getId());
+        assertEquals(onDuty.size() - 2, grid.size());
+    }
+
+    @Test
+    void givesUpWhenTheRingLimitIsReached() {
+        ActiveWorkerGeoGrid limited = new ActiveWorkerGeoGrid(true, 0.1, 5);
+        limited.update(worker(1, 10.0, 10.0, WorkerStatus.ON_DUTY));
+        limited.update(worker(2, 40.0, 40.0, WorkerStatus.ON_DUTY));
+
+        assertEquals(1, limited.nearest(10.0, 10.0, 1, null).size());
+        assertNull(limited.nearest(10.0, 10.0, 2, null));
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        for (int q = 0; q < QUERIES; q++) {
+            double[] city = CITIES[q % CITIES.length];
+            double latitude = q % 5 == 0 ? random.nextDouble() * 120 - 60 : city[0] + random.nextGaussian() * 0.3;
+            double longitude = q % 5 == 0 ? random.nextDouble() * 360 - 180 : city[1] + random.nextGaussian() * 0.3;
+            int k = 1 + random.nextInt(50);
+            Double radiusKm = q % 2 == 0 ? null : 5 + random.nextDouble() * 50;
+
+            List<NearbyWorker> actual = grid.nearest(latitude, longitude, k, radiusKm);
+            List<NearbyWorker> expected = bruteForce(latitude, longitude, k, radiusKm);
+            assertEquals(expected.size(), actual.size(), "result size for query " + q);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getDistanceKm(), actual.get(i).getDistanceKm(), 1e-9,
+                        "distance of result " + i + " for query " + q);
+            }
+        }
+    }
+
+    private List<NearbyWorker> bruteForce(double latitude, double longitude, int k, Double radiusKm) {
+        return onDuty.stream()
+                .map(w -> new NearbyWorker(w, ActiveWorkerGeoGrid.haversineKm(latitude, longitude, w.getLatitude(), w.getLongitude())))
+                .filter(n -> radiusKm == null || n.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyWorker::getDistanceKm))
+                .limit(k)
+                .toList();
+    }
+
+    private static WorkerInformation worker(int id, double latitude, double longitude, WorkerStatus status) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(id);
+        worker.setLatitude(Math.max(-90, Math.min(90, latitude)));
+        worker.setLongitude(longitude);
+        worker.setStatus(status);
+        return worker;
+    }
+
+    private static final double[][] CITIES = {
+            {19.07, 72.88}, {28.61, 77.21}, {12.97, 77.59}, {13.08, 80.27}, {22.57, 88.36}, {17.38, 78.49}
+    };
+}
@@ -0,0 +1,222 @@
+package com.jfd.worker.mgmt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.idempotency.IdempotencyRecord;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTests {
+
+    private final Map<String, IdempotencyRecord> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for the idempotency_keys collection: insert fails on an existing _id
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (stored.putIfAbsent(record.getId(), record) != null) {
+                throw new DuplicateKeyException(record.getId());
+            }
+            return record;
+        });
+        when(mongoOperations.findById(any(), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> stored.get((String) invocation.getArgument(0)));
+        when(mongoOperations.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    String key = ((Query) invocation.getArgument(0)).getQueryObject().getString("id");
+                    Document set = ((UpdateDefinition) invocation.getArgument(1)).getUpdateObject()
+                            .get("$set", Document.class);
+                    IdempotencyRecord record = stored.get(key);
+                    record.setCompleted(true);
+                    record.setStatus(set.getInteger("status"));
+                    record.setBody((byte[]) set.get("body"));
+                    return null;
+                });
+        when(mongoOperations.remove(any(Query.class), eq(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            stored.remove(((Query) invocation.getArgument(0)).getQueryObject().getString("id"));
+            return null;
+        });
+
+        ConcurrencyLimiter mongoLimiter = new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), meterRegistry);
+        service = new IdempotencyService(100, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofSeconds(10),
+                mongoOperations, objectMapper, meterRegistry, mongoLimiter);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void retryWithSameKeyReplaysStoredResponse() {
+        ResponseEntity<Map> first = service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                () -> Map.of("id", executions.incrementAndGet()));
+        ResponseEntity<Map> retry = service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                () -> Map.of("id", executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertFalse(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+        assertTrue(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void storedResponseIsReplayedAfterLocalCacheIsLost() {
+        service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                () -> Map.of("id", executions.incrementAndGet()));
+        IdempotencyService otherInstance = new IdempotencyService(100, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                Duration.ofSeconds(10), mockedStore(), objectMapper, meterRegistry,
+                new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), meterRegistry));
+
+        ResponseEntity<Map> retry = otherInstance.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                () -> Map.of("id", executions.incrementAndGet()));
+
+        assertEquals(1, executions.get());
+        assertEquals(Map.of("id", 1), retry.getBody());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED, () -> Map.of("id", 1));
+
+        IdempotencyKeyConflictException e = assertThrows(IdempotencyKeyConflictException.class,
+                () -> service.execute("key-1", Map.of("name", "B"), Map.class, HttpStatus.CREATED, () -> Map.of("id", 2)));
+        assertFalse(e.isInProgress());
+    }
+
+    @Test
+    void retriedRegistrationMatchesDespiteServerAssignedFields() {
+        WorkerInformation request = worker("Asha");
+        WorkerInformation retry = worker("Asha"); // Deserialized again, so it gets its own default timestamp
+        retry.setTimestamp(request.getTimestamp().plusSeconds(3));
+
+        ResponseEntity<WorkerInformation> first = service.execute("key-1", request,
+                WorkerInformation.SERVER_ASSIGNED_FIELDS, WorkerInformation.class, HttpStatus.CREATED, () -> registered(request));
+        ResponseEntity<WorkerInformation> replayed = service.execute("key-1", retry,
+                WorkerInformation.SERVER_ASSIGNED_FIELDS, WorkerInformation.class, HttpStatus.CREATED, () -> registered(retry));
+
+        assertEquals(1, executions.get());
+        assertTrue(replayed.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(first.getBody().getId(), replayed.getBody().getId());
+        assertEquals(request.getTimestamp(), replayed.getBody().getTimestamp());
+
+        WorkerInformation other = worker("Ravi");
+        assertThrows(IdempotencyKeyConflictException.class, () -> service.execute("key-1", other,
+                WorkerInformation.SERVER_ASSIGNED_FIELDS, WorkerInformation.class, HttpStatus.CREATED, () -> registered(other)));
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<ResponseEntity<Map>>> responses = new ArrayList<>();
+        responses.add(executor.submit(() -> service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED, () -> {
+            started.countDown();
+            await(release);
+            return Map.of("id", executions.incrementAndGet());
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            responses.add(executor.submit(() -> service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                    () -> Map.of("id", executions.incrementAndGet()))));
+        }
+        release.countDown();
+
+        for (Future<ResponseEntity<Map>> response : responses) {
+            assertEquals(Map.of("id", 1), response.get(5, TimeUnit.SECONDS).getBody());
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedRequestReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> service.execute("key-1", Map.of("name", "A"), Map.class,
+                HttpStatus.CREATED, () -> {
+                    throw new IllegalStateException("MongoDB unavailable");
+                }));
+
+        ResponseEntity<Map> retry = service.execute("key-1", Map.of("name", "A"), Map.class, HttpStatus.CREATED,
+                () -> Map.of("id", executions.incrementAndGet()));
+        assertEquals(Map.of("id", 1), retry.getBody());
+        assertFalse(stored.isEmpty());
+    }
+
+    private WorkerInformation registered(WorkerInformation worker) {
+        worker.setId(executions.incrementAndGet());
+        worker.setVersion(0L);
+        return worker;
+    }
+
+    private static WorkerInformation worker(String name) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setName(name);
+        worker.setAge(29);
+        worker.setPhoneNumber("+91 98765 43210");
+        worker.setEkycId(EkycId.AADHAR);
+        worker.setEkycData("1234-5678-9012");
+        worker.setAddress("12, MG Road, Bengaluru 560001");
+        worker.setLatitude(12.9716);
+        worker.setLongitude(77.5946);
+        worker.setStatus(WorkerStatus.REGISTERED);
+        return worker;
+    }
+
+    private MongoOperations mockedStore() {
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("key-1"));
+        when(mongoOperations.findById(any(), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> stored.get((String) invocation.getArgument(0)));
+        return mongoOperations;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.outbox.OutboxLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTests {
+
+    private final MockProducer<String, byte[]> producer =
+            new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final List<Object> removed = new ArrayList<>();
+    private ExecutorService executor;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoOperations.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(
+                event("1", "A"), event("2", "B"), event("3", "A"), event("4", "B")));
+        when(mongoOperations.upsert(any(Query.class), any(UpdateDefinition.class), eq(OutboxLease.class))).thenReturn(null);
+        when(mongoOperations.remove(any(Query.class), eq(OutboxEvent.class))).thenAnswer(invocation -> {
+            removed.addAll(((Query) invocation.getArgument(0)).getQueryObject().get("id", Document.class)
+                    .getList("$in", Object.class));
+            return null;
+        });
+        ProducerFactory<String, byte[]> producerFactory = () -> producer;
+        relay = new OutboxRelay(mongoOperations, new KafkaTemplate<>(producerFactory), true, 500,
+                Duration.ofSeconds(10), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void laterEventsOfAKeyAreNotSentAfterItFails() throws Exception {
+        Future<Integer> batch = executor.submit(relay::relayBatch);
+
+        awaitSent(2); // First round: the oldest event of each key
+        assertEquals(List.of("1", "2"), sentIds());
+        producer.errorNext(new RuntimeException("broker unavailable")); // Event 1 of key A
+        producer.completeNext(); // Event 2 of key B
+
+        awaitSent(3); // Second round: only key B is left
+        producer.completeNext();
+
+        assertEquals(4, batch.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "4"), sentIds());
+        assertEquals(List.of("2", "4"), removed);
+    }
+
+    @Test
+    void sendTimeoutMustBeShorterThanTheLease() {
+        ProducerFactory<String, byte[]> producerFactory = () -> producer;
+        assertThrows(IllegalArgumentException.class, () -> new OutboxRelay(mongoOperations,
+                new KafkaTemplate<>(producerFactory), true, 500, Duration.ofSeconds(10), Duration.ofSeconds(30),
+                new SimpleMeterRegistry()));
+    }
+
+    private void awaitSent(int records) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.history().size() < records) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + records + " sends");
+            Thread.sleep(5);
+        }
+        Thread.sleep(50); // Nothing else may be sent before the pending sends complete
+    }
+
+    private List<String> sentIds() {
+        return producer.history().stream()
+                .map(ProducerRecord::headers)
+                .map(headers -> new String(headers.lastHeader(OutboxRelay.EVENT_ID_HEADER).value()))
+                .toList();
+    }
+
+    private static OutboxEvent event(String id, String key) {
+        return new OutboxEvent(id, "worker-registration", key, new byte[]{1}, null, Instant.now(), null);
+    }
+}
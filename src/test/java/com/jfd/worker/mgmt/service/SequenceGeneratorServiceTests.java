@@ -0,0 +1,130 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.config.DatabaseSequence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SequenceGeneratorServiceTests {
+
+    private static final String SEQUENCE = "workers_sequence";
+
+    private final AtomicLong storedSeq = new AtomicLong();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private MongoOperations mongoOperations;
+    private ExecutorService refillExecutor;
+    private final ConcurrencyLimiter mongoLimiter =
+            new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for the database_sequences document: an atomic $inc that returns the new value
+        mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> {
+                    UpdateDefinition update = invocation.getArgument(1);
+                    Number inc = (Number) update.getUpdateObject().get("$inc", Document.class).get("seq");
+                    roundTrips.incrementAndGet();
+                    DatabaseSequence counter = new DatabaseSequence();
+                    counter.setId(SEQUENCE);
+                    counter.setSeq(storedSeq.addAndGet(inc.longValue()));
+                    return counter;
+                });
+        refillExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refillExecutor.shutdownNow();
+    }
+
+    @Test
+    void singleIdModeKeepsOneRoundTripPerId() {
+        SequenceGeneratorService service = new SequenceGeneratorService(mongoOperations, refillExecutor, 1, 0.25, mongoLimiter);
+
+        assertEquals(1, service.generateSequence(SEQUENCE));
+        assertEquals(2, service.generateSequence(SEQUENCE));
+        assertEquals(2, roundTrips.get());
+    }
+
+    @Test
+    void blockModeHandsOutConsecutiveIdsFromOneLease() {
+        SequenceGeneratorService service = new SequenceGeneratorService(mongoOperations, Runnable::run, 100, 0.0, mongoLimiter);
+
+        for (int expected = 1; expected <= 100; expected++) {
+            assertEquals(expected, service.generateSequence(SEQUENCE));
+        }
+        assertEquals(1, roundTrips.get());
+    }
+
+    @Test
+    void concurrentCallersAcrossInstancesAndRestartsNeverSeeDuplicates() throws Exception {
+        int threads = 32;
+        int idsPerThread = 5_000;
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        // Two live instances sharing the same sequence document
+        List<SequenceGeneratorService> instances = List.of(
+                new SequenceGeneratorService(mongoOperations, refillExecutor, 64, 0.25, mongoLimiter),
+                new SequenceGeneratorService(mongoOperations, refillExecutor, 64, 0.25, mongoLimiter));
+        hammer(instances, threads, idsPerThread, ids);
+
+        // A restarted instance must continue past everything leased before
+        SequenceGeneratorService restarted = new SequenceGeneratorService(mongoOperations, refillExecutor, 64, 0.25, mongoLimiter);
+        hammer(List.of(restarted), threads, idsPerThread, ids);
+
+        assertEquals(threads * idsPerThread * 2, ids.size());
+        assertTrue(roundTrips.get() < ids.size() / 32, "IDs should be leased in blocks, not one at a time");
+    }
+
+    private void hammer(List<SequenceGeneratorService> instances, int threads, int idsPerThread,
+                        Set<Integer> ids) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SequenceGeneratorService service = instances.get(t % instances.size());
+            futures.add(callers.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    int id = service.generateSequence(SEQUENCE);
+                    assertTrue(ids.add(id), "Duplicate ID " + id);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+    }
+}
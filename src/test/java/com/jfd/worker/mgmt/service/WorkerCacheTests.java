@@ -0,0 +1,154 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkerCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private ExecutorService executor;
+    private WorkerCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+        cache = new WorkerCache(true, 100, Duration.ofMinutes(1), kafkaTemplate, meterRegistry,
+                new ConcurrencyLimiter("kafka", 16, Duration.ofSeconds(10), meterRegistry));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsTheOldWorkerOutOfTheCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<WorkerInformation> read = executor.submit(() -> cache.get(1, id -> {
+            loading.countDown();
+            await(release);
+            return worker(id, "before update");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate(1); // The update committed while the read was still loading
+        release.countDown();
+
+        assertEquals("before update", read.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("after update", cache.get(1, id -> worker(id, "after update")).getName());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<WorkerInformation>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(executor.submit(() -> cache.get(1, id -> {
+                loads.incrementAndGet();
+                await(release);
+                return worker(id, "Asha");
+            })));
+        }
+        Thread.sleep(100); // Let every read reach the cache
+        release.countDown();
+
+        for (Future<WorkerInformation> read : reads) {
+            assertEquals("Asha", read.get(5, TimeUnit.SECONDS).getName());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missingWorkersAreNotCached() {
+        assertNull(cache.get(1, id -> null));
+        assertEquals("Asha", cache.get(1, id -> worker(id, "Asha")).getName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkInvalidationCarriesTheIdsInTheValue() {
+        cache.get(1, id -> worker(id, "Asha"));
+        cache.invalidateAll(List.of(1, 2, 3));
+
+        ArgumentCaptor<ProducerRecord<String, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertNull(sent.getValue().key());
+        assertEquals("1,2,3", sent.getValue().value());
+
+        // The publishing instance skips its own message; another instance applies it
+        cache.get(2, id -> worker(id, "Ravi"));
+        cache.onInvalidation(received(sent.getValue()));
+        assertEquals("Ravi", cache.get(2, id -> worker(id, "Ravi K")).getName());
+        WorkerCache other = new WorkerCache(true, 100, Duration.ofMinutes(1), kafkaTemplate, meterRegistry,
+                new ConcurrencyLimiter("kafka", 16, Duration.ofSeconds(10), meterRegistry));
+        other.get(2, id -> worker(id, "Ravi"));
+        other.onInvalidation(received(sent.getValue()));
+        assertEquals("Ravi K", other.get(2, id -> worker(id, "Ravi K")).getName());
+    }
+
+    @Test
+    void invalidationsWithoutTheInstanceHeaderAreIgnored() {
+        cache.get(1, id -> worker(id, "Asha"));
+
+        // IDs in the key and an instance ID in the value, without the header
+        cache.onInvalidation(new ConsumerRecord<>("worker-cache-invalidation", 0, 0L, "1", "other-instance"));
+        cache.onInvalidation(new ConsumerRecord<>("worker-cache-invalidation", 0, 1L, null, "1"));
+
+        assertEquals("Asha", cache.get(1, id -> worker(id, "Asha K")).getName());
+    }
+
+    private static ConsumerRecord<String, String> received(ProducerRecord<String, String> sent) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(sent.topic(), 0, 0L, sent.key(), sent.value());
+        sent.headers().forEach(header -> record.headers().add(header));
+        return record;
+    }
+
+    private static WorkerInformation worker(int id, String name) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(id);
+        worker.setName(name);
+        return worker;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package com.jfd.worker.mgmt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.event.WorkerEventFormat;
+import com.jfd.worker.mgmt.event.WorkerEventSerializer;
+import com.jfd.worker.mgmt.metrics.StageMetrics;
+import com.jfd.worker.mgmt.metrics.TracePropagation;
+import com.jfd.worker.mgmt.model.outbox.OutboxEvent;
+import com.jfd.worker.mgmt.model.registration.BulkRegistrationResult;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionRequest;
+import com.jfd.worker.mgmt.model.registration.StatusTransitionResult;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerPage;
+import com.jfd.worker.mgmt.model.registration.WorkerPatch;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.registration.WorkerSummary;
+import com.jfd.worker.mgmt.model.registration.WorkerSummaryPage;
+import com.jfd.worker.mgmt.repository.MongoReadRouting;
+import com.jfd.worker.mgmt.repository.WorkerInformationRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.ExecutableFind;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.FindWithQuery;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.TerminatingFind;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkerServiceTests {
+
+    private static final String DUPLICATE_PHONE_NUMBER =
+            "E11000 duplicate key error collection: jfd.workers index: phoneNumberKey_unique";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final WorkerInformationRepository repository = mock(WorkerInformationRepository.class);
+    private final WorkerStatistics workerStatistics = mock(WorkerStatistics.class);
+    private final WorkerCache workerCache = mock(WorkerCache.class);
+    private final SequenceGeneratorService sequenceGeneratorService = mock(SequenceGeneratorService.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+    @SuppressWarnings("unchecked")
+    private final FindWithQuery<WorkerSummary> summaryQuery = mock(FindWithQuery.class);
+    @SuppressWarnings("unchecked")
+    private final TerminatingFind<WorkerSummary> summaries = mock(TerminatingFind.class);
+    private WorkerService service;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimiter mongoLimiter = new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), meterRegistry);
+        MongoReadRouting readRouting = new MongoReadRouting(false, Duration.ofSeconds(100), Set.of(),
+                mongoOperations, mongoOperations, meterRegistry);
+        service = new WorkerService(repository, mongoOperations, readRouting,
+                Validation.buildDefaultValidatorFactory().getValidator(), sequenceGeneratorService,
+                new ActiveWorkerGeoGrid(false, 0.1, 200), workerStatistics, workerCache, transactionTemplate(),
+                new WorkerEventSerializer(WorkerEventFormat.JSON), mongoLimiter, new StageMetrics(meterRegistry),
+                new TracePropagation((Tracer) null, (Propagator) null));
+        ReflectionTestUtils.setField(service, "kafkaTopic", "worker-registration");
+        ReflectionTestUtils.setField(service, "updateTopic", "worker-updates");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkRegistrationReservesIdsOnceAndWritesOneBulkInsertAndOneOutboxInsert() {
+        when(sequenceGeneratorService.generateSequences("workers_sequence", 3)).thenReturn(100);
+        stubBulkInsert();
+        WorkerInformation underage = worker("+91 98765 00001");
+        underage.setAge(12);
+
+        List<BulkRegistrationResult> results = service.registerWorkers(List.of(
+                worker("+91 98765 00000"), underage, worker("+91 98765 00002"), worker("+91 98765 00003")));
+
+        assertEquals(List.of(BulkRegistrationResult.created(0, 100),
+                BulkRegistrationResult.invalid(1, Map.of("age", "Age must be at least 18")),
+                BulkRegistrationResult.created(2, 101), BulkRegistrationResult.created(3, 102)), results);
+        verify(sequenceGeneratorService).generateSequences("workers_sequence", 3);
+        verify(sequenceGeneratorService, never()).generateSequence(any());
+        ArgumentCaptor<List<WorkerInformation>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(inserted.capture());
+        verify(bulkOperations).execute();
+        assertEquals(List.of(100, 101, 102), inserted.getValue().stream().map(WorkerInformation::getId).toList());
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(mongoOperations).insert(events.capture(), eq(OutboxEvent.class));
+        assertEquals(List.of("100", "101", "102"), events.getValue().stream().map(OutboxEvent::getKey).toList());
+        verify(workerStatistics, times(3)).added(any(WorkerInformation.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkRegistrationRejectsKnownDuplicatesUpFrontAndRetriesOnlyForRaces() {
+        WorkerInformation registered = worker("+91 98765 00000");
+        registered.setPhoneNumberKey("919876500000");
+        when(mongoOperations.find(any(Query.class), eq(WorkerInformation.class))).thenReturn(List.of(registered));
+        when(sequenceGeneratorService.generateSequences("workers_sequence", 5)).thenReturn(100);
+        stubBulkInsert();
+        // Two workers registered elsewhere between the check and the insert; each aborts one transaction
+        when(bulkOperations.execute())
+                .thenThrow(duplicatePhoneNumber(0))
+                .thenThrow(duplicatePhoneNumber(3))
+                .thenReturn(null);
+
+        List<BulkRegistrationResult> results = service.registerWorkers(List.of(
+                worker("+91 98765 00000"), worker("+91 98765 00001"), worker("+91 98765 00002"),
+                worker("+91-98765-00001"), worker("+91 98765 00003"), worker("+91 98765 00004"),
+                worker("+91 98765 00005")));
+
+        assertEquals(List.of(
+                BulkRegistrationResult.failed(0, "A worker with this phone number is already registered"),
+                BulkRegistrationResult.failed(1, DUPLICATE_PHONE_NUMBER),
+                BulkRegistrationResult.created(2, 101),
+                BulkRegistrationResult.failed(3, "The phone number is repeated in this batch"),
+                BulkRegistrationResult.created(4, 102),
+                BulkRegistrationResult.created(5, 103),
+                BulkRegistrationResult.failed(6, DUPLICATE_PHONE_NUMBER)), results);
+        ArgumentCaptor<Query> lookup = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(lookup.capture(), eq(WorkerInformation.class));
+        assertEquals(new Document("phoneNumberKey", new Document("$in", List.of("919876500000", "919876500001",
+                "919876500002", "919876500003", "919876500004", "919876500005"))), lookup.getValue().getQueryObject());
+        // Only the workers that passed the check get IDs, and only the races cost a retried transaction
+        verify(sequenceGeneratorService).generateSequences("workers_sequence", 5);
+        ArgumentCaptor<List<WorkerInformation>> attempts = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(3)).insert(attempts.capture());
+        assertEquals(List.of(List.of(100, 101, 102, 103, 104), List.of(101, 102, 103, 104), List.of(101, 102, 103)),
+                attempts.getAllValues().stream().map(attempt -> attempt.stream().map(WorkerInformation::getId).toList()).toList());
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(mongoOperations).insert(events.capture(), eq(OutboxEvent.class));
+        assertEquals(List.of("101", "102", "103"), events.getValue().stream().map(OutboxEvent::getKey).toList());
+        verify(workerStatistics, times(3)).added(any(WorkerInformation.class));
+    }
+
+    @Test
+    void patchSetsOnlyTheGivenFieldsInOneFindAndModify() throws Exception {
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class))).thenReturn(stored(3L));
+        WorkerPatch patch = new WorkerPatch();
+        patch.setName("Asha K");
+        patch.setStatus(WorkerStatus.ON_DUTY);
+        patch.setVersion(3L);
+
+        WorkerInformation updated = service.patchWorker(7, patch);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoOperations).findAndModify(query.capture(), update.capture(), options.capture(), eq(WorkerInformation.class));
+        Document queryObject = query.getValue().getQueryObject();
+        assertEquals(Set.of("id", "version", "status"), queryObject.keySet());
+        assertEquals(7, queryObject.get("id"));
+        assertEquals(3L, queryObject.get("version"));
+        // Only a worker whose status allows the move is matched
+        assertEquals(Set.of(WorkerStatus.REGISTERED, WorkerStatus.REGULAR),
+                statusSources(query.getValue()));
+        assertEquals(Set.of("name", "status"), update.getValue().getUpdateObject().get("$set", Document.class).keySet());
+        assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc", Document.class));
+        assertFalse(options.getValue().isReturnNew()); // The old document is needed to move the statistics
+        verify(repository, never()).findById(anyInt());
+
+        // The result is the old document with the patch applied, as MongoDB stored it
+        assertEquals("Asha K", updated.getName());
+        assertEquals(WorkerStatus.ON_DUTY, updated.getStatus());
+        assertEquals("12, MG Road, Bengaluru 560001", updated.getAddress());
+        assertEquals(4L, updated.getVersion());
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(mongoOperations).insert(event.capture());
+        assertEquals("worker-updates", event.getValue().getTopic());
+        JsonNode change = new ObjectMapper().readTree(event.getValue().getPayload());
+        assertEquals(4, change.get("version").asInt());
+        assertEquals("Asha K", change.get("changes").get("name").asText());
+        assertEquals(2, change.get("changes").size());
+
+        ArgumentCaptor<WorkerInformation> before = ArgumentCaptor.forClass(WorkerInformation.class);
+        verify(workerStatistics).changed(before.capture(), eq(updated));
+        assertEquals(WorkerStatus.REGISTERED, before.getValue().getStatus());
+        verify(workerCache).invalidate(7);
+    }
+
+    @Test
+    void patchOfAnOutdatedVersionIsAConflict() {
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class))).thenReturn(null);
+        when(repository.findById(7)).thenReturn(Optional.of(stored(3L)));
+        WorkerPatch patch = new WorkerPatch();
+        patch.setName("Asha K");
+        patch.setVersion(2L);
+
+        assertThrows(WorkerVersionConflictException.class, () -> service.patchWorker(7, patch));
+        verify(mongoOperations, never()).insert(any(OutboxEvent.class));
+        verifyNoInteractions(workerStatistics, workerCache);
+    }
+
+    @Test
+    void patchToAStatusTheWorkerCannotMoveToIsAConflict() {
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class))).thenReturn(null);
+        WorkerInformation unregistered = stored(3L);
+        unregistered.setStatus(WorkerStatus.UNREGISTERED);
+        when(repository.findById(7)).thenReturn(Optional.of(unregistered));
+        WorkerPatch patch = new WorkerPatch();
+        patch.setStatus(WorkerStatus.ON_DUTY);
+        patch.setVersion(3L);
+
+        WorkerStatusConflictException e = assertThrows(WorkerStatusConflictException.class,
+                () -> service.patchWorker(7, patch));
+        assertEquals("Worker with ID 7 cannot move from UNREGISTERED to ON_DUTY", e.getMessage());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).findAndModify(query.capture(), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class));
+        assertEquals(Set.of(WorkerStatus.REGISTERED, WorkerStatus.REGULAR),
+                statusSources(query.getValue()));
+        verify(mongoOperations, never()).insert(any(OutboxEvent.class));
+        verifyNoInteractions(workerStatistics, workerCache);
+    }
+
+    @Test
+    void patchOfAMissingWorkerIsNotAConflict() {
+        when(mongoOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(WorkerInformation.class))).thenReturn(null);
+        when(repository.findById(7)).thenReturn(Optional.empty());
+        WorkerPatch patch = new WorkerPatch();
+        patch.setStatus(WorkerStatus.ON_DUTY);
+        patch.setVersion(2L);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.patchWorker(7, patch));
+        assertFalse(e instanceof WorkerVersionConflictException);
+        assertFalse(e instanceof WorkerStatusConflictException);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusTransitionByIdOnlyMatchesAllowedSourcesAndReportsTheSkippedIds() {
+        WorkerInformation registered = listed(7);
+        WorkerInformation regular = listed(9);
+        regular.setStatus(WorkerStatus.REGULAR);
+        when(mongoOperations.find(any(Query.class), eq(WorkerInformation.class))).thenReturn(List.of(registered, regular));
+        StatusTransitionRequest request = new StatusTransitionRequest();
+        request.setTargetStatus(WorkerStatus.ON_DUTY);
+        request.setIds(List.of(7, 8, 9, 7, 8));
+
+        StatusTransitionResult result = service.transitionStatuses(request);
+
+        // 8 is unknown or not in an allowed status; requested twice, skipped once
+        assertEquals(new StatusTransitionResult(WorkerStatus.ON_DUTY, 2, List.of(8)), result);
+        ArgumentCaptor<Query> selection = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).find(selection.capture(), eq(WorkerInformation.class));
+        assertEquals(Set.of(WorkerStatus.REGISTERED, WorkerStatus.REGULAR), statusSources(selection.getValue()));
+        assertEquals(List.of(7, 8, 9, 7, 8), selection.getValue().getQueryObject().get("id", Document.class).get("$in"));
+        ArgumentCaptor<Query> updated = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoOperations).updateMulti(updated.capture(), update.capture(), eq(WorkerInformation.class));
+        assertEquals(List.of(7, 9), updated.getValue().getQueryObject().get("id", Document.class).get("$in"));
+        assertEquals(Set.of(WorkerStatus.REGISTERED, WorkerStatus.REGULAR), statusSources(updated.getValue()));
+        assertEquals(new Document("status", WorkerStatus.ON_DUTY), update.getValue().getUpdateObject().get("$set", Document.class));
+        assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc", Document.class));
+
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(mongoOperations).insert(events.capture(), eq(OutboxEvent.class));
+        assertEquals(List.of("7", "9"), events.getValue().stream().map(OutboxEvent::getKey).toList());
+        verify(workerCache).invalidateAll(List.of(7, 9));
+        verify(workerStatistics).statusChanged(WorkerStatus.REGISTERED, WorkerStatus.ON_DUTY);
+        verify(workerStatistics).statusChanged(WorkerStatus.REGULAR, WorkerStatus.ON_DUTY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusTransitionByFilterWalksTheMatchingWorkersOneBatchAtATime() {
+        List<WorkerInformation> firstBatch = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            firstBatch.add(listed(id));
+        }
+        WorkerInformation onDuty = listed(1001);
+        onDuty.setStatus(WorkerStatus.ON_DUTY);
+        when(mongoOperations.find(any(Query.class), eq(WorkerInformation.class)))
+                .thenReturn(firstBatch, List.of(onDuty, listed(1002)));
+        StatusTransitionRequest request = new StatusTransitionRequest();
+        request.setTargetStatus(WorkerStatus.UNREGISTERED);
+        request.setEkycId(EkycId.AADHAR);
+
+        StatusTransitionResult result = service.transitionStatuses(request);
+
+        assertEquals(new StatusTransitionResult(WorkerStatus.UNREGISTERED, 1002, null), result);
+        ArgumentCaptor<Query> selections = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations, times(2)).find(selections.capture(), eq(WorkerInformation.class));
+        Query first = selections.getAllValues().get(0);
+        Query second = selections.getAllValues().get(1);
+        assertEquals(Set.of(WorkerStatus.REGISTERED, WorkerStatus.ON_DUTY, WorkerStatus.REGULAR), statusSources(first));
+        assertEquals(EkycId.AADHAR, first.getQueryObject().get("ekycId"));
+        assertNull(first.getQueryObject().get("id"));
+        assertEquals(new Document("id", 1), first.getSortObject());
+        assertEquals(1000, first.getLimit());
+        // The next batch continues after the last moved ID
+        assertEquals(new Document("$gt", 1000), second.getQueryObject().get("id"));
+        assertEquals(1000, second.getLimit());
+
+        // One outbox insert, one cache invalidation and one update per batch
+        verify(mongoOperations, times(2)).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(WorkerInformation.class));
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(mongoOperations, times(2)).insert(events.capture(), eq(OutboxEvent.class));
+        assertEquals(List.of(1000, 2), events.getAllValues().stream().map(List::size).toList());
+        ArgumentCaptor<Collection<Integer>> invalidated = ArgumentCaptor.forClass(Collection.class);
+        verify(workerCache, times(2)).invalidateAll(invalidated.capture());
+        assertEquals(List.of(1000, 2), invalidated.getAllValues().stream().map(Collection::size).toList());
+        verify(workerStatistics, times(1001)).statusChanged(WorkerStatus.REGISTERED, WorkerStatus.UNREGISTERED);
+        verify(workerStatistics).statusChanged(WorkerStatus.ON_DUTY, WorkerStatus.UNREGISTERED);
+    }
+
+    @Test
+    void deleteIsASingleFindAndRemove() {
+        WorkerInformation deleted = stored(3L);
+        when(mongoOperations.findAndRemove(any(Query.class), eq(WorkerInformation.class))).thenReturn(deleted);
+
+        service.deleteWorkerById(7);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).findAndRemove(query.capture(), eq(WorkerInformation.class));
+        assertEquals(new Document("id", 7), query.getValue().getQueryObject());
+        verify(repository, never()).existsById(anyInt());
+        verify(repository, never()).deleteById(anyInt());
+        verify(workerStatistics).removed(deleted);
+        verify(workerCache).invalidate(7);
+    }
+
+    @Test
+    void deleteOfAMissingWorkerFails() {
+        when(mongoOperations.findAndRemove(any(Query.class), eq(WorkerInformation.class))).thenReturn(null);
+
+        assertThrows(RuntimeException.class, () -> service.deleteWorkerById(7));
+        verifyNoInteractions(workerStatistics, workerCache);
+    }
+
+    @Test
+    void listPagesByIdWithOneExtraDocumentAndRoundTripsTheContinuation() {
+        when(mongoOperations.find(any(Query.class), eq(WorkerInformation.class)))
+                .thenReturn(List.of(listed(1), listed(2), listed(3)))
+                .thenReturn(List.of(listed(3)));
+
+        WorkerPage first = service.getWorkers(WorkerStatus.ON_DUTY, EkycId.PAN, null, 2, null);
+        WorkerPage last = service.getWorkers(WorkerStatus.ON_DUTY, EkycId.PAN, first.getContinuation(), 2, null);
+
+        assertEquals(List.of(1, 2), first.getWorkers().stream().map(WorkerInformation::getId).toList());
+        assertNotNull(first.getContinuation());
+        assertEquals(List.of(3), last.getWorkers().stream().map(WorkerInformation::getId).toList());
+        assertNull(last.getContinuation());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations, times(2)).find(query.capture(), eq(WorkerInformation.class));
+        Query firstQuery = query.getAllValues().get(0);
+        assertEquals(new Document("status", WorkerStatus.ON_DUTY).append("ekycId", EkycId.PAN), firstQuery.getQueryObject());
+        assertEquals(new Document("id", 1), firstQuery.getSortObject());
+        assertEquals(3, firstQuery.getLimit());
+        assertEquals(new Document("status", WorkerStatus.ON_DUTY).append("ekycId", EkycId.PAN)
+                .append("id", new Document("$gt", 2)), query.getAllValues().get(1).getQueryObject());
+    }
+
+    @Test
+    void listRejectsMalformedContinuationsAndLimits() {
+        for (String continuation : List.of("not base64!", "eDE6Mg", "dzE6dHdv")) { // Bad encoding, "x1:2", "w1:two"
+            assertThrows(IllegalArgumentException.class, () -> service.getWorkers(null, null, continuation, 10, null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.getWorkers(null, null, null, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getWorkers(null, null, null, 1001, null));
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void streamHoldsAMongoPermitUntilClosed() {
+        when(mongoOperations.stream(any(Query.class), eq(WorkerInformation.class)))
+                .thenReturn(Stream.of(listed(1), listed(2)));
+
+        Stream<WorkerInformation> workers = service.streamWorkers(null, EkycId.AADHAR, null);
+
+        assertEquals(1.0, mongoPermitsInUse());
+        assertEquals(2, workers.count());
+        workers.close();
+        assertEquals(0.0, mongoPermitsInUse());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).stream(query.capture(), eq(WorkerInformation.class));
+        assertEquals(new Document("ekycId", EkycId.AADHAR), query.getValue().getQueryObject());
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+    }
+
+    @Test
+    void searchReadsSummariesOnePageAtATime() {
+        stubSummaryQuery();
+        when(summaries.all()).thenReturn(List.of(summary(1), summary(2), summary(3)));
+
+        WorkerSummaryPage first = service.searchWorkers(WorkerStatus.ON_DUTY, null, null, null, 2, null);
+
+        assertEquals(List.of(1, 2), first.getWorkers().stream().map(WorkerSummary::getId).toList());
+        assertNotNull(first.getContinuation());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(summaryQuery).matching(query.capture());
+        assertEquals(new Document("status", WorkerStatus.ON_DUTY), query.getValue().getQueryObject());
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+        assertEquals(3, query.getValue().getLimit()); // One extra to know whether another page exists
+
+        when(summaries.all()).thenReturn(List.of(summary(3)));
+        WorkerSummaryPage last = service.searchWorkers(WorkerStatus.ON_DUTY, null, null, first.getContinuation(), 2, null);
+
+        assertEquals(List.of(3), last.getWorkers().stream().map(WorkerSummary::getId).toList());
+        assertNull(last.getContinuation());
+        verify(summaryQuery, times(2)).matching(query.capture());
+        assertEquals(new Document("$gt", 2), query.getValue().getQueryObject().get("id", Document.class));
+    }
+
+    @Test
+    void searchByPhoneNumberMatchesItsDigitsAndAppliesTheFilters() {
+        stubSummaryQuery();
+        when(summaries.one()).thenReturn(Optional.of(summary(7)));
+
+        assertEquals(1, service.searchWorkers(WorkerStatus.REGISTERED, null, "+91 98765-43210", null, 100, null)
+                .getWorkers().size());
+        assertEquals(0, service.searchWorkers(WorkerStatus.ON_DUTY, null, "+91 98765-43210", null, 100, null)
+                .getWorkers().size());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(summaryQuery, times(2)).matching(query.capture());
+        assertEquals(new Document("phoneNumberKey", "919876543210"), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void searchRejectsAnOutOfRangeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.searchWorkers(null, null, null, null, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> service.searchWorkers(null, null, null, null, 1001, null));
+        verifyNoInteractions(mongoOperations);
+    }
+
+    /**
+     * Stubs {@code query(WorkerInformation).as(WorkerSummary).matching(...)} on the MongoDB mock,
+     * so searches read {@link #summaries} and only the summary fields are ever projected.
+     */
+    @SuppressWarnings("unchecked")
+    private void stubSummaryQuery() {
+        ExecutableFind<WorkerInformation> query = mock(ExecutableFind.class);
+        when(mongoOperations.query(WorkerInformation.class)).thenReturn(query);
+        when(query.as(WorkerSummary.class)).thenReturn(summaryQuery);
+        when(summaryQuery.matching(any(Query.class))).thenReturn(summaries);
+    }
+
+    private void stubBulkInsert() {
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkerInformation.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private static BulkOperationException duplicatePhoneNumber(int index) {
+        // Inside a transaction MongoDB stops at the first write error
+        return new BulkOperationException("Bulk write operation error", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, DUPLICATE_PHONE_NUMBER, new BsonDocument(), index)),
+                null, new ServerAddress(), Set.of()));
+    }
+
+    private static WorkerInformation worker(String phoneNumber) {
+        WorkerInformation worker = stored(null);
+        worker.setId(null);
+        worker.setPhoneNumber(phoneNumber);
+        return worker;
+    }
+
+    private double mongoPermitsInUse() {
+        return meterRegistry.get("resource.limiter.in.use").tag("resource", "mongo").gauge().value();
+    }
+
+    private static WorkerInformation listed(int id) {
+        WorkerInformation worker = stored(0L);
+        worker.setId(id);
+        return worker;
+    }
+
+    private static WorkerSummary summary(int id) {
+        WorkerSummary summary = new WorkerSummary();
+        summary.setId(id);
+        summary.setName("Worker " + id);
+        summary.setStatus(WorkerStatus.REGISTERED);
+        return summary;
+    }
+
+    private static Set<?> statusSources(Query query) {
+        return Set.copyOf((Collection<?>) query.getQueryObject().get("status", Document.class).get("$in"));
+    }
+
+    private static WorkerInformation stored(Long version) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setId(7);
+        worker.setName("Asha");
+        worker.setAge(29);
+        worker.setPhoneNumber("+91 98765 43210");
+        worker.setEkycId(EkycId.AADHAR);
+        worker.setEkycData("1234-5678-9012");
+        worker.setAddress("12, MG Road, Bengaluru 560001");
+        worker.setLatitude(12.9716);
+        worker.setLongitude(77.5946);
+        worker.setStatus(WorkerStatus.REGISTERED);
+        worker.setVersion(version);
+        return worker;
+    }
+
+    /**
+     * @return A transaction template whose transactions only run the callback.
+     */
+    private static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.config.DatabaseSequence;
+import com.jfd.worker.mgmt.model.snapshot.SnapshotResult;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkerSnapshotServiceTests {
+
+    private static final int WORKERS = 2500;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Document> imported = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failAfter = new AtomicInteger(-1);
+    private final Set<Integer> existingIds = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> phoneNumberTaken = ConcurrentHashMap.newKeySet();
+    private MongoOperations mongoOperations;
+    private WorkerSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for the workers collection: a cursor in _id order, honouring $gt on _id
+        mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("workers"))).thenAnswer(invocation -> {
+            Document idFilter = ((Query) invocation.getArgument(0)).getQueryObject().get("_id", Document.class);
+            int after = idFilter == null ? 0 : idFilter.getInteger("$gt");
+            int limit = failAfter.getAndSet(-1);
+            Stream<Document> cursor = IntStream.rangeClosed(after + 1, WORKERS).mapToObj(WorkerSnapshotServiceTests::worker);
+            if (limit < 0) {
+                return cursor;
+            }
+            return Stream.concat(cursor.limit(limit), Stream.<Document>generate(() -> {
+                throw new IllegalStateException("Cursor lost");
+            }));
+        });
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, "workers")).thenAnswer(invocation -> bulkInsert());
+
+        ConcurrencyLimiter mongoLimiter = new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        service = new WorkerSnapshotService(mongoOperations, mongoLimiter, 1000, 300, 1);
+    }
+
+    @Test
+    void exportedSnapshotImportsBackEveryDocument() throws IOException {
+        Path file = tempDir.resolve("workers.ndjson.gz");
+
+        SnapshotResult exported = service.exportWorkers(file, false);
+        SnapshotResult result = service.importWorkers(file, 4);
+
+        assertEquals(WORKERS, exported.getDocuments());
+        assertEquals(WORKERS, exported.getLastId());
+        assertEquals(Files.size(file), exported.getBytes());
+        assertEquals(WORKERS, result.getDocuments());
+        assertEquals(WORKERS, result.getLastId());
+        imported.sort(Comparator.comparing(document -> document.getInteger("_id")));
+        assertEquals(IntStream.rangeClosed(1, WORKERS).mapToObj(WorkerSnapshotServiceTests::worker).toList(), imported);
+
+        ArgumentCaptor<UpdateDefinition> sequenceUpdate = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoOperations).upsert(any(Query.class), sequenceUpdate.capture(), eq(DatabaseSequence.class));
+        assertEquals((long) WORKERS, sequenceUpdate.getValue().getUpdateObject().get("$max", Document.class).get("seq"));
+    }
+
+    @Test
+    void emptyCollectionRoundTrips() throws IOException {
+        when(mongoOperations.stream(any(Query.class), eq(Document.class), eq("workers"))).thenAnswer(invocation -> Stream.empty());
+        Path file = tempDir.resolve("workers.ndjson.gz");
+
+        SnapshotResult exported = service.exportWorkers(file, false);
+        SnapshotResult result = service.importWorkers(file, 4);
+
+        assertEquals(0, exported.getDocuments());
+        assertNull(exported.getLastId());
+        assertTrue(Files.size(file) > 0); // An empty gzip member, not an empty file
+        assertEquals(Files.size(file), exported.getBytes());
+        assertEquals(0, result.getDocuments());
+        assertNull(result.getLastId());
+        assertTrue(imported.isEmpty());
+        verify(mongoOperations, never()).upsert(any(Query.class), any(UpdateDefinition.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void emptyFileImportsNothing() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("workers.ndjson.gz"));
+
+        SnapshotResult result = service.importWorkers(file, 4);
+
+        assertEquals(0, result.getDocuments());
+        assertNull(result.getLastId());
+        verify(mongoOperations, never()).bulkOps(any(BulkOperations.BulkMode.class), any(String.class));
+    }
+
+    @Test
+    void workersAlreadyPresentAreSkipped() throws IOException {
+        Path file = tempDir.resolve("workers.ndjson.gz");
+        service.exportWorkers(file, false);
+        IntStream.rangeClosed(1, 1000).forEach(existingIds::add); // A previous, interrupted import
+
+        SnapshotResult result = service.importWorkers(file, 4);
+
+        assertEquals(WORKERS - 1000, result.getDocuments());
+        assertEquals(1000, result.getSkipped());
+        assertEquals(WORKERS - 1000, imported.size());
+    }
+
+    @Test
+    void otherDuplicateKeysFailTheImport() throws IOException {
+        Path file = tempDir.resolve("workers.ndjson.gz");
+        service.exportWorkers(file, false);
+        phoneNumberTaken.add(42); // Its phone number belongs to a different worker already in the collection
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.importWorkers(file, 4));
+        assertTrue(e.getMessage().startsWith("Worker 42 conflicts with an existing worker"));
+    }
+
+    @Test
+    void resumedExportContinuesAfterLastCheckpoint() throws IOException {
+        Path file = tempDir.resolve("workers.ndjson.gz");
+        failAfter.set(1500); // Checkpoint after 1000, the next 500 are written but not checkpointed
+
+        assertThrows(IllegalStateException.class, () -> service.exportWorkers(file, false));
+        SnapshotResult resumed = service.exportWorkers(file, true);
+
+        assertEquals(WORKERS - 1000, resumed.getDocuments());
+        assertEquals(IntStream.rangeClosed(1, WORKERS).boxed().toList(), exportedIds(file));
+    }
+
+    /**
+     * Stand-in for an unordered bulk insert: fails documents whose {@code _id} exists or whose phone
+     * number is taken with the server's duplicate key errors, and inserts the rest.
+     */
+    private BulkOperations bulkInsert() {
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        List<Document> documents = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            documents.addAll(invocation.getArgument(0));
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < documents.size(); i++) {
+                int id = documents.get(i).getInteger("_id");
+                if (existingIds.contains(id)) {
+                    errors.add(new BulkWriteError(11000, "E11000 duplicate key error collection: jfd.workers index: _id_ dup key: { _id: "
+                            + id + " }", new BsonDocument(), i));
+                } else if (phoneNumberTaken.contains(id)) {
+                    errors.add(new BulkWriteError(11000, "E11000 duplicate key error collection: jfd.workers index: "
+                            + "phoneNumberKey_unique dup key: { phoneNumberKey: \"9198765" + id + "\" }", new BsonDocument(), i));
+                } else {
+                    imported.add(documents.get(i));
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new BulkOperationException("Bulk write operation error", new MongoBulkWriteException(
+                        BulkWriteResult.acknowledged(documents.size() - errors.size(), 0, 0, 0, List.of(), List.of()),
+                        errors, null, new ServerAddress(), Set.of()));
+            }
+            return BulkWriteResult.acknowledged(documents.size(), 0, 0, 0, List.of(), List.of());
+        });
+        return bulkOperations;
+    }
+
+    private static List<Integer> exportedIds(Path file) throws IOException {
+        // One gzip stream to standard readers, although written as several members
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().map(line -> Document.parse(line).getInteger("_id")).toList();
+        }
+    }
+
+    private static Document worker(int id) {
+        return new Document("_id", id)
+                .append("name", "Worker " + id)
+                .append("status", id % 2 == 0 ? "ON_DUTY" : "REGULAR")
+                .append("latitude", 12.9716)
+                .append("longitude", 77.0)
+                .append("location", new Document("type", "Point").append("coordinates", List.of(77.0, 12.9716)));
+    }
+}
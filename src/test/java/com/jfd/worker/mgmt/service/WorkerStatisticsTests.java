@@ -0,0 +1,137 @@
+package com.jfd.worker.mgmt.service;
+
+import com.jfd.worker.mgmt.concurrency.ConcurrencyLimiter;
+import com.jfd.worker.mgmt.model.registration.EkycId;
+import com.jfd.worker.mgmt.model.registration.WorkerInformation;
+import com.jfd.worker.mgmt.model.registration.WorkerStatus;
+import com.jfd.worker.mgmt.model.stats.HeatmapCell;
+import com.jfd.worker.mgmt.model.stats.WorkerCounts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkerStatisticsTests {
+
+    private MongoOperations mongoOperations;
+    private WorkerStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for the two seeding aggregations: counts by status/eKYC type, then heatmap cells
+        mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.aggregate(any(Aggregation.class), eq("workers"), eq(Document.class))).thenAnswer(invocation -> {
+            Aggregation aggregation = invocation.getArgument(0);
+            boolean heatmap = aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).containsKey("$match");
+            List<Document> results = heatmap
+                    ? List.of(new Document("_id", new Document("lat", 205.0).append("lon", 515.0)).append("workers", 3))
+                    : List.of(group("ON_DUTY", "AADHAR", 2), group("REGULAR", "PAN", 1), group(null, null, 1));
+            return new AggregationResults<>(results, new Document());
+        });
+        ConcurrencyLimiter mongoLimiter = new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        statistics = new WorkerStatistics(true, 0.5, mongoOperations, mongoLimiter);
+    }
+
+    @Test
+    void notReadyUntilSeeded() {
+        assertFalse(statistics.isReady());
+        statistics.seed();
+        assertTrue(statistics.isReady());
+    }
+
+    @Test
+    void disabledStatisticsNeverReadMongo() {
+        WorkerStatistics disabled = new WorkerStatistics(false, 0.5, mongoOperations,
+                new ConcurrencyLimiter("mongo", 16, Duration.ofSeconds(10), new SimpleMeterRegistry()));
+
+        disabled.seed();
+        disabled.reconcile();
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void seedCountsWhatMongoReports() {
+        statistics.seed();
+
+        WorkerCounts counts = statistics.counts();
+        assertEquals(4, counts.getTotal());
+        assertEquals(2, counts.getByStatus().get(WorkerStatus.ON_DUTY));
+        assertEquals(1, counts.getByStatus().get(WorkerStatus.REGULAR));
+        assertEquals(0, counts.getByStatus().get(WorkerStatus.UNREGISTERED));
+        assertEquals(2, counts.getByEkycId().get(EkycId.AADHAR));
+        assertEquals(1, counts.getByEkycId().get(EkycId.PAN));
+        // Cell 205/515 at 0.5 degrees is the one with its south-west corner at 12.5N, 77.5E
+        assertEquals(List.of(new HeatmapCell(12.5, 77.5, 3)), statistics.heatmap().getCells());
+    }
+
+    @Test
+    void writesMoveWorkersBetweenCounters() {
+        statistics.seed();
+        WorkerInformation worker = worker(WorkerStatus.REGISTERED, 12.97, 77.59);
+
+        statistics.added(worker);
+        statistics.statusChanged(WorkerStatus.REGISTERED, WorkerStatus.ON_DUTY);
+        WorkerInformation moved = worker(WorkerStatus.ON_DUTY, 28.61, 77.21);
+        statistics.changed(worker(WorkerStatus.ON_DUTY, 12.97, 77.59), moved);
+
+        WorkerCounts counts = statistics.counts();
+        assertEquals(5, counts.getTotal());
+        assertEquals(0, counts.getByStatus().get(WorkerStatus.REGISTERED));
+        assertEquals(3, counts.getByStatus().get(WorkerStatus.ON_DUTY));
+        assertTrue(statistics.heatmap().getCells().contains(new HeatmapCell(28.5, 77.0, 1)));
+        assertTrue(statistics.heatmap().getCells().contains(new HeatmapCell(12.5, 77.5, 3)));
+
+        statistics.removed(moved);
+        assertEquals(4, statistics.counts().getTotal());
+        assertFalse(statistics.heatmap().getCells().contains(new HeatmapCell(28.5, 77.0, 1)));
+    }
+
+    @Test
+    void concurrentRegistrationsAreAllCounted() throws InterruptedException {
+        statistics.seed();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 80_000; i++) {
+            executor.execute(() -> statistics.added(worker(WorkerStatus.REGISTERED, 12.97, 77.59)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_004, statistics.counts().getTotal());
+        assertEquals(80_000, statistics.counts().getByStatus().get(WorkerStatus.REGISTERED));
+        assertTrue(statistics.heatmap().getCells().contains(new HeatmapCell(12.5, 77.5, 80_003)));
+    }
+
+    private static Document group(String status, String ekycId, int workers) {
+        return new Document("_id", new Document("status", status).append("ekycId", ekycId)).append("workers", workers);
+    }
+
+    private static WorkerInformation worker(WorkerStatus status, double latitude, double longitude) {
+        WorkerInformation worker = new WorkerInformation();
+        worker.setStatus(status);
+        worker.setEkycId(EkycId.AADHAR);
+        worker.setLatitude(latitude);
+        worker.setLongitude(longitude);
+        return worker;
+    }
+}